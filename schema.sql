@@ -1,6 +0,0 @@
-CREATE TABLE IF NOT EXISTS patients (
-  id BIGINT AUTO_INCREMENT PRIMARY KEY,
-  first_name VARCHAR(100),
-  last_name VARCHAR(100),
-  email VARCHAR(200)
-);
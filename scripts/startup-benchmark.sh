@@ -0,0 +1,81 @@
+#!/usr/bin/env bash
+# Cold-start benchmark: time from `docker run` to the first successful GET /v1/patients/{id},
+# for the default image (Dockerfile) and the fast-startup image (Dockerfile.fast). Both run on
+# eclipse-temurin:17-jre, so the difference is AOT + AppCDS alone.
+#
+#   scripts/startup-benchmark.sh [runs]        (default 5 runs per image)
+#
+# Containers get the same limits as kube/deployment.yaml (override with CPUS / MEMORY).
+# Needs docker, curl and GNU date; run from anywhere inside the repo.
+set -euo pipefail
+
+RUNS="${1:-5}"
+CPUS="${CPUS:-0.5}"
+MEMORY="${MEMORY:-512m}"
+PATIENT_ID="${PATIENT_ID:-1}"
+PORT="${PORT:-18081}"
+TIMEOUT_S="${TIMEOUT_S:-300}"
+NET=hms-startup-bench
+DB=hms-startup-bench-db
+APP=hms-startup-bench-app
+
+cd "$(dirname "$0")/.."
+
+cleanup() {
+  docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+  docker network rm "$NET" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() { date +%s%3N; }
+
+echo "Building images..."
+docker build -q -t hms-patient:bench-default -f Dockerfile . >/dev/null
+docker build -q -t hms-patient:bench-fast -f Dockerfile.fast . >/dev/null
+
+cleanup
+docker network create "$NET" >/dev/null
+docker run -d --name "$DB" --network "$NET" \
+  -e MYSQL_ROOT_PASSWORD=password -e MYSQL_DATABASE=patientdb mysql:8.0 >/dev/null
+echo -n "Waiting for MySQL"
+until docker exec "$DB" mysqladmin ping -h 127.0.0.1 -ppassword --silent >/dev/null 2>&1; do
+  echo -n "."; sleep 2
+done
+echo
+
+# starts one app container and prints the milliseconds until GET /v1/patients/$PATIENT_ID returns 200
+start_and_time() {
+  local image="$1" started elapsed
+  started=$(now_ms)
+  docker run -d --name "$APP" --network "$NET" --cpus "$CPUS" --memory "$MEMORY" -p "$PORT:8081" \
+    -e SPRING_DATASOURCE_URL="jdbc:mysql://$DB:3306/patientdb?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&rewriteBatchedStatements=true" \
+    -e SPRING_DATASOURCE_USERNAME=root -e SPRING_DATASOURCE_PASSWORD=password \
+    "$image" >/dev/null
+  until curl -sf -o /dev/null -u admin:password "http://localhost:$PORT/v1/patients/$PATIENT_ID"; do
+    if (( $(now_ms) - started > TIMEOUT_S * 1000 )); then
+      echo "timed out waiting for $image" >&2
+      docker logs --tail 50 "$APP" >&2
+      exit 1
+    fi
+    sleep 0.1
+  done
+  elapsed=$(( $(now_ms) - started ))
+  docker rm -f "$APP" >/dev/null
+  echo "$elapsed"
+}
+
+# untimed first start: applies the migrations and loads the seed, so every timed run finds patient $PATIENT_ID
+echo "Preparing schema and seed data..."
+start_and_time hms-patient:bench-default >/dev/null
+
+printf '\n%-10s %6s %10s %10s %10s   (%s CPU, %s, time to first GET /v1/patients/%s)\n' \
+  image runs "min ms" "median ms" "max ms" "$CPUS" "$MEMORY" "$PATIENT_ID"
+for variant in default fast; do
+  times=()
+  for ((i = 1; i <= RUNS; i++)); do
+    times+=("$(start_and_time "hms-patient:bench-$variant")")
+  done
+  sorted=($(printf '%s\n' "${times[@]}" | sort -n))
+  printf '%-10s %6d %10d %10d %10d\n' "$variant" "$RUNS" \
+    "${sorted[0]}" "${sorted[$(( RUNS / 2 ))]}" "${sorted[$(( RUNS - 1 ))]}"
+done
@@ -1,184 +1,132 @@
 package org.hms.patient.config;
 
-import org.hms.patient.model.Patient;
-import org.hms.patient.repository.PatientRepository;
+import jakarta.annotation.PreDestroy;
+import org.hms.patient.service.ImportJob;
+import org.hms.patient.service.PatientBatchWriter;
+import org.hms.patient.service.PatientImportService;
+import org.hms.patient.service.ReadinessService;
+import org.hms.patient.service.ReadinessService.SeedProgress;
+import org.hms.patient.service.ReadinessService.SeedState;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.time.LocalDate;
-import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.OptionalLong;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Loads the classpath seed CSV (and, when patient.seed.synthetic.count > 0, generated patients)
+ * on a background thread so startup is not blocked.
+ * Progress is reported through ReadinessService; the instance reports ready only once the seed has settled.
+ */
 @Component
 public class DataLoader implements ApplicationRunner {
     private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
 
-    private final PatientRepository repo;
-    private final JdbcTemplate jdbc;
-
-    public DataLoader(PatientRepository repo, JdbcTemplate jdbc) {
-        this.repo = repo;
-        this.jdbc = jdbc;
+    private final ReadinessService readiness;
+    private final ApplicationEventPublisher events;
+    private final SyntheticPatientGenerator generator;
+    private final PatientImportService imports;
+    private final PatientBatchWriter writer;
+    private final boolean enabled;
+    private final long syntheticCount;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "seed-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public DataLoader(ReadinessService readiness,
+                      ApplicationEventPublisher events, SyntheticPatientGenerator generator,
+                      PatientImportService imports, PatientBatchWriter writer,
+                      @Value("${patient.seed.enabled:true}") boolean enabled,
+                      @Value("${patient.seed.synthetic.count:0}") long syntheticCount) {
+        this.readiness = readiness;
+        this.events = events;
+        this.generator = generator;
+        this.imports = imports;
+        this.writer = writer;
+        this.enabled = enabled;
+        this.syntheticCount = syntheticCount;
     }
 
     @Override
     public void run(ApplicationArguments args) {
-        try {
-            ClassPathResource resource = new ClassPathResource("seed/hms_patients.csv");
-            if (!resource.exists()) {
-                // fallback older name
-                resource = new ClassPathResource("seed/patients.csv");
-            }
-            if (!resource.exists()) {
-                log.info("Seed file not found: seed/hms_patients.csv or seed/patients.csv — skipping seed load");
-                return;
-            }
-
-            List<Patient> toSave = new ArrayList<>();
-            int total = 0, skipped = 0, added = 0;
-            long maxIdSeen = 0L;
-
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
-                String line;
-                boolean first = true;
-                while ((line = br.readLine()) != null) {
-                    // skip header if present
-                    if (first && line.toLowerCase().contains("name") && line.toLowerCase().contains("email")) {
-                        first = false;
-                        continue;
-                    }
-                    first = false;
-                    total++;
-
-                    // naive CSV split — adjust if your CSV has quoted commas
-                    String[] cols = line.split(",");
-                    // Accept both variants: with patient_id (6 cols) or without (5 cols)
-                    if (cols.length < 5) {
-                        log.warn("Skipping malformed seed line (cols < 5): {}", line);
-                        skipped++;
-                        continue;
-                    }
-
-                    int idx = 0;
-                    Long csvId = null;
-                    String maybeId = cols[0].trim();
-                    // If file contains headerless 6 columns, check whether first is numeric id or name
-                    boolean firstIsId = false;
-                    try {
-                        // treat as id if it is a number
-                        csvId = Long.parseLong(maybeId);
-                        firstIsId = true;
-                    } catch (NumberFormatException ignored) {
-                        firstIsId = false;
-                    }
-
-                    String name, email, phone, dobStr;
-                    if (firstIsId) {
-                        // expected columns: id,name,email,phone,dob,created_at
-                        if (cols.length < 6) {
-                            log.warn("Skipping malformed seed line (expected 6 cols when id present): {}", line);
-                            skipped++;
-                            continue;
-                        }
-                        name = cols[1].trim();
-                        email = cols[2].trim();
-                        phone = cols[3].trim();
-                        dobStr = cols[4].trim();
-                    } else {
-                        // columns: name,email,phone,dob,created_at
-                        name = cols[0].trim();
-                        email = cols[1].trim();
-                        phone = cols[2].trim();
-                        dobStr = cols[3].trim();
-                    }
-
-                    LocalDate dob = null;
-                    try {
-                        if (!dobStr.isEmpty()) dob = LocalDate.parse(dobStr);
-                    } catch (Exception e) {
-                        // ignore parse error, keep null
-                    }
-
-                    // dedupe by email or phone: if either exists, skip
-                    boolean existsByEmail = email != null && !email.isBlank() && repo.existsByEmail(email);
-                    boolean existsByPhone = phone != null && !phone.isBlank() && repo.existsByPhone(phone);
-                    if (existsByEmail || existsByPhone) {
-                        skipped++;
-                        continue;
-                    }
-
-                    Patient p = new Patient();
-                    if (csvId != null) {
-                        p.setPatientId(csvId); // set explicit id — DB will accept explicit value
-                        if (csvId > maxIdSeen) maxIdSeen = csvId;
-                    }
-                    p.setName(name);
-                    p.setEmail(email);
-                    p.setPhone(phone);
-                    p.setDob(dob);
-                    p.setActive(true);
-                    p.setCreatedAt(OffsetDateTime.now());
-
-                    toSave.add(p);
+        if (!enabled) {
+            log.info("Seed load disabled (patient.seed.enabled=false)");
+            settle(SeedState.SKIPPED, null);
+            return;
+        }
+        executor.execute(this::load);
+    }
 
-                    // batch save per 500 rows to avoid huge transactions
-                    if (toSave.size() >= 500) {
-                        saveBatch(toSave);
-                        added += toSave.size();
-                        toSave.clear();
-                    }
-                }
-            }
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
 
-            if (!toSave.isEmpty()) {
-                saveBatch(toSave);
-                added += toSave.size();
-            }
+    private void settle(SeedState state, String error) {
+        SeedProgress progress = readiness.seed();
+        progress.finish(state, error);
+        events.publishEvent(new SeedCompletedEvent(progress.getAdded()));
+    }
 
-            // if we saw explicit ids, update table AUTO_INCREMENT to maxIdSeen + 1
-            if (maxIdSeen > 0) {
-                long next = maxIdSeen + 1;
-                try {
-                    jdbc.execute("ALTER TABLE patients AUTO_INCREMENT = " + next);
-                    log.info("Set patients AUTO_INCREMENT to {}", next);
-                } catch (Exception e) {
-                    log.warn("Failed to set AUTO_INCREMENT to {}: {}", next, e.getMessage());
-                }
-            } else {
-                // if no ids provided, ensure AUTO_INCREMENT continues correctly
-                OptionalLong maybeMax = repo.findAll().stream().mapToLong(Patient::getPatientId).max();
-                if (maybeMax.isPresent()) {
-                    long next = maybeMax.getAsLong() + 1;
-                    try {
-                        jdbc.execute("ALTER TABLE patients AUTO_INCREMENT = " + next);
-                        log.info("Set patients AUTO_INCREMENT to {}", next);
-                    } catch (Exception e) {
-                        log.warn("Failed to set AUTO_INCREMENT to {}: {}", next, e.getMessage());
-                    }
-                }
+    void load() {
+        SeedProgress progress = readiness.seed();
+        progress.start();
+        try {
+            boolean csvLoaded = loadCsv(progress);
+            if (syntheticCount > 0) {
+                generator.generateAll(syntheticCount, writer::insert, progress);
+            } else if (!csvLoaded) {
+                settle(SeedState.SKIPPED, null);
+                return;
             }
-
-            log.info("Seed load finished. Total rows read: {}, added: {}, skipped (duplicates/malformed): {}",
-                    total, added, skipped);
-
+            settle(SeedState.DONE, null);
         } catch (Exception e) {
             log.error("Failed to load seed data — continuing startup (error logged)", e);
+            settle(SeedState.FAILED, e.getMessage());
         }
     }
 
-    @Transactional
-    protected void saveBatch(List<Patient> list) {
-        // use saveAll; wrapped in transaction
-        repo.saveAll(list);
+    /**
+     * Imports the seed CSV through the same path as bulk import jobs, keeping its explicit patient ids
+     * (PatientBatchWriter moves the id sequence past them).
+     */
+    private boolean loadCsv(SeedProgress progress) throws IOException {
+        ClassPathResource resource = new ClassPathResource("seed/hms_patients.csv");
+        if (!resource.exists()) {
+            // fallback older name
+            resource = new ClassPathResource("seed/patients.csv");
+        }
+        if (!resource.exists()) {
+            log.info("Seed file not found: seed/hms_patients.csv or seed/patients.csv — skipping CSV seed");
+            return false;
+        }
+
+        ImportJob job;
+        try (InputStream in = resource.getInputStream()) {
+            job = imports.importNow(resource.getFilename(), in, resource.contentLength(), true);
+        }
+        progress.read(job.getRowsRead());
+        progress.added(job.getImported());
+        progress.skipped(job.getRejected());
+        if (job.getState() == ImportJob.State.FAILED) {
+            throw new IOException("Seed import failed: " + job.getError());
+        }
+        for (ImportJob.Rejection r : job.getRejections()) {
+            log.debug("Seed line {} skipped: {}", r.getLine(), r.getReason());
+        }
+
+        log.info("Seed load finished. Total rows read: {}, added: {}, skipped (duplicates/malformed): {}",
+                job.getRowsRead(), job.getImported(), job.getRejected());
+        return true;
     }
 }
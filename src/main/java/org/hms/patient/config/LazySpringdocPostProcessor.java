@@ -0,0 +1,43 @@
+package org.hms.patient.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+
+/**
+ * Marks springdoc's beans lazy so the OpenAPI/Swagger machinery is built on the first
+ * /v3/api-docs or /swagger-ui request instead of during startup. Post-processors and beans with an
+ * explicit @Lazy (springdoc marks its swagger-ui setup @Lazy(false)) are left as they are.
+ * Under Spring AOT the lazy flags are captured in the generated bean definitions.
+ */
+public class LazySpringdocPostProcessor implements BeanFactoryPostProcessor {
+    private static final String SPRINGDOC = "org.springdoc.";
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition def = beanFactory.getBeanDefinition(name);
+            if (!isSpringdoc(def)) continue;
+            if (def instanceof AbstractBeanDefinition abd && abd.getLazyInit() != null) continue;
+            Class<?> type = beanFactory.getType(name, false);
+            if (type != null && (BeanFactoryPostProcessor.class.isAssignableFrom(type)
+                    || BeanPostProcessor.class.isAssignableFrom(type))) {
+                continue;
+            }
+            def.setLazyInit(true);
+        }
+    }
+
+    private static boolean isSpringdoc(BeanDefinition def) {
+        String source = def.getBeanClassName();
+        if (source == null && def instanceof AnnotatedBeanDefinition annotated
+                && annotated.getFactoryMethodMetadata() != null) {
+            source = annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        return source != null && source.startsWith(SPRINGDOC);
+    }
+}
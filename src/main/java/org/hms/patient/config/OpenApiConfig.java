@@ -10,6 +10,12 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class OpenApiConfig {
 
+    // static: a BeanFactoryPostProcessor must not force early creation of this configuration class
+    @Bean
+    public static LazySpringdocPostProcessor lazySpringdocPostProcessor() {
+        return new LazySpringdocPostProcessor();
+    }
+
     @Bean
     public OpenAPI openAPI() {
         final String BASIC_SCHEME = "basicAuth";
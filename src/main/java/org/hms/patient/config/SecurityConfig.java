@@ -1,9 +1,12 @@
 package org.hms.patient.config;
 
 import org.hms.patient.security.RoleBasedAccessFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
@@ -40,6 +43,22 @@ public class SecurityConfig {
         return new InMemoryUserDetailsManager(admin, doctor, reception);
     }
 
+    /**
+     * Basic auth against the users above. By default a successful login re-encodes a {noop} password with BCrypt
+     * (UserDetailsPasswordService), after which every request pays for a BCrypt match; the loadtest profile turns
+     * that off so it measures the service rather than password hashing.
+     */
+    @Bean
+    public DaoAuthenticationProvider authenticationProvider(
+            InMemoryUserDetailsManager users,
+            @Value("${patient.security.upgrade-passwords:true}") boolean upgradePasswords) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(PasswordEncoderFactories.createDelegatingPasswordEncoder());
+        if (upgradePasswords) provider.setUserDetailsPasswordService(users);
+        return provider;
+    }
+
     /** Security chain + RBAC filter registration */
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -48,7 +67,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Open endpoints
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**",
-                                "/swagger-ui.html", "/actuator/**").permitAll()
+                                "/swagger-ui.html", "/actuator/**", "/healthcheck/**").permitAll()
                         // Everything else must authenticate
                         .anyRequest().authenticated()
                 )
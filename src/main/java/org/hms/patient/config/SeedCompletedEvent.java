@@ -0,0 +1,13 @@
+package org.hms.patient.config;
+
+/**
+ * Published by DataLoader once the background seed has settled (done, skipped or failed),
+ * so caches and in-memory indexes can warm up against the loaded data.
+ */
+public class SeedCompletedEvent {
+    private final long added;
+
+    public SeedCompletedEvent(long added) { this.added = added; }
+
+    public long getAdded() { return added; }
+}
@@ -0,0 +1,89 @@
+package org.hms.patient.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hms.patient.shard.PatientIdGenerator;
+import org.hms.patient.shard.ShardRouter;
+import org.hms.patient.shard.ShardRoutingDataSource;
+import org.hms.patient.shard.ShardingProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Storage layout: one pool per shard (patient.sharding.shards, or spring.datasource alone as a single shard),
+ * exposed to JPA as a routing DataSource, with Flyway run against every shard.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean
+    public ShardRouter shardRouter(DataSourceProperties dataSource, ShardingProperties sharding) {
+        List<DataSource> shards = new ArrayList<>();
+        if (sharding.getShards().isEmpty()) {
+            shards.add(dataSource.initializeDataSourceBuilder().type(HikariDataSource.class).build());
+        } else {
+            for (int i = 0; i < sharding.getShards().size(); i++) {
+                ShardingProperties.Shard s = sharding.getShards().get(i);
+                HikariDataSource ds = DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(s.getUrl())
+                        .username(s.getUsername())
+                        .password(s.getPassword())
+                        .build();
+                ds.setPoolName("shard-" + i);
+                ds.setMaximumPoolSize(s.getPoolSize());
+                shards.add(ds);
+            }
+        }
+        log.info("Patient storage: {} shard(s)", shards.size());
+        return new ShardRouter(shards, sharding.getScatterThreads(), sharding.getMaxScatterRows());
+    }
+
+    @Bean
+    public DataSource dataSource(ShardRouter router) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < router.shardCount(); i++) shards.add(router.dataSource(i));
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    public PatientIdGenerator patientIdGenerator(ShardRouter router, ShardingProperties sharding) {
+        return new PatientIdGenerator(router, sharding.getIdBlockSize());
+    }
+
+    /**
+     * The auto-configured Flyway only sees the routing DataSource (shard 0); apply the same migrations everywhere.
+     * patient.sharding.migrate-on-start=false skips them at runtime: unlike spring.flyway.enabled it still
+     * works in an AOT build, where Flyway's auto-configuration is fixed at build time (e.g. the CDS training run).
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedMigration(ShardRouter router,
+                                                    @Value("${patient.sharding.migrate-on-start:true}") boolean migrate) {
+        return flyway -> {
+            if (!migrate) {
+                log.info("Schema migrations skipped (patient.sharding.migrate-on-start=false)");
+                return;
+            }
+            for (int i = 0; i < router.shardCount(); i++) {
+                Flyway.configure(flyway.getConfiguration().getClassLoader())
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(router.dataSource(i))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,239 @@
+package org.hms.patient.config;
+
+import org.hms.patient.model.Patient;
+import org.hms.patient.service.PatientBatchWriter;
+import org.hms.patient.service.ReadinessService.SeedProgress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic generator of realistic patients for performance testing.
+ * - Patient i is a pure function of (seed, anchor, i): the same config always yields the same rows
+ * - Names follow a Zipf-like distribution: common Indian first/last names at the head, then a long tail built
+ *   from syllables (about 2,000 first names and 3,000 surnames), so full names are mostly distinct rather than
+ *   repeating a small set
+ * - Emails and phones are unique by construction (index in the email, a bijective permutation of i in the phone)
+ * - Chunks are generated and written in parallel; a batch whose last email already exists is skipped,
+ *   and rows of a partly loaded batch that already exist are skipped one by one, so a restarted run resumes
+ *   instead of failing on unique constraints
+ */
+@Component
+public class SyntheticPatientGenerator {
+    private static final Logger log = LoggerFactory.getLogger(SyntheticPatientGenerator.class);
+
+    private static final String[] FIRST_NAMES = {
+            "Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh", "Ayaan", "Krishna", "Ishaan",
+            "Rohan", "Karan", "Raj", "Rahul", "Amit", "Suresh", "Ramesh", "Vikram", "Sanjay", "Anil",
+            "Ananya", "Diya", "Aadhya", "Saanvi", "Pari", "Anika", "Navya", "Myra", "Sara", "Ira",
+            "Neha", "Priya", "Pooja", "Kavya", "Lakshmi", "Sunita", "Meera", "Divya", "Sneha", "Aisha"
+    };
+    private static final String[] LAST_NAMES = {
+            "Sharma", "Patel", "Singh", "Kumar", "Gupta", "Reddy", "Iyer", "Khan", "Verma", "Das",
+            "Menon", "Nair", "Rao", "Joshi", "Mehta", "Shah", "Agarwal", "Chatterjee", "Banerjee", "Mishra",
+            "Pillai", "Naidu", "Kapoor", "Malhotra", "Bhat", "Kulkarni", "Desai", "Jain", "Yadav", "Chopra"
+    };
+    // tail pools: every onset x middle x ending (resp. prefix x core x suffix) combination, after the common names
+    private static final String[] FIRST_ONSETS = {
+            "A", "Ra", "Vi", "Ka", "Sa", "Ma", "Pra", "Shi", "De", "Ni",
+            "Ha", "Ja", "Su", "Ta", "Gau", "Ri", "Na", "Lo", "Bha", "Ku"
+    };
+    private static final String[] FIRST_MIDDLES = {"ra", "vi", "ni", "sha", "ka", "ma", "ya", "ru", "dha", "la"};
+    private static final String[] FIRST_ENDINGS = {"n", "v", "j", "t", "sh", "a", "i", "ya", "an", "esh"};
+    private static final String[] LAST_PREFIXES = {
+            "Ag", "Ban", "Cha", "Dev", "Gan", "Ka", "Kri", "Ma", "Na", "Pa",
+            "Ra", "Sa", "Sri", "Tha", "Va", "Bho", "Du", "Ja", "Mu", "Shi"
+    };
+    private static final String[] LAST_CORES = {"dha", "ra", "la", "ni", "va", "ri", "ka", "pa", "ma", "ta", "sha", "ja", "ga", "ba", "ya"};
+    private static final String[] LAST_SUFFIXES = {"war", "nan", "kar", "rajan", "ppa", "swamy", "rkar", "wal", "dey", "lal"};
+    private static final String[] FIRST_POOL = pool(FIRST_NAMES, FIRST_ONSETS, FIRST_MIDDLES, FIRST_ENDINGS);
+    private static final String[] LAST_POOL = pool(LAST_NAMES, LAST_PREFIXES, LAST_CORES, LAST_SUFFIXES);
+    private static final String[] EMAIL_DOMAINS = {"gmail.com", "yahoo.co.in", "outlook.com", "rediffmail.com"};
+    private static final double[] FIRST_CDF = zipfCdf(FIRST_POOL.length, 0.9);
+    private static final double[] LAST_CDF = zipfCdf(LAST_POOL.length, 0.8);
+
+    // 3^18 is coprime with 10^9, so i -> (i * M + C) mod 10^9 is a bijection: unique 9-digit phone suffixes
+    private static final long PHONE_SPACE = 1_000_000_000L;
+    private static final long PHONE_MULTIPLIER = 387_420_489L;
+    private static final long PHONE_OFFSET = 104_729L;
+    private static final long CREATED_SPREAD_SECONDS = 5L * 365 * 24 * 3600;
+
+    private final PatientBatchWriter writer;
+    private final long seed;
+    private final OffsetDateTime anchor;
+    private final int threads;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public SyntheticPatientGenerator(PatientBatchWriter writer,
+                                     @Value("${patient.seed.synthetic.seed:42}") long seed,
+                                     @Value("${patient.seed.synthetic.anchor:2026-01-01T00:00:00Z}") String anchor,
+                                     @Value("${patient.seed.synthetic.threads:4}") int threads,
+                                     @Value("${patient.seed.synthetic.chunk-size:50000}") int chunkSize,
+                                     @Value("${patient.seed.synthetic.batch-size:1000}") int batchSize) {
+        this.writer = writer;
+        this.seed = seed;
+        this.anchor = OffsetDateTime.parse(anchor);
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    /** The most common surnames the generator uses — handy search terms for load tests. */
+    public static List<String> lastNames() { return List.of(LAST_NAMES); }
+
+    /** Builds patient number {@code i} (0-based). The patientId is left null for PatientBatchWriter to assign. */
+    public Patient generate(long i) {
+        SplittableRandom rnd = new SplittableRandom(seed ^ (i * 0x9E3779B97F4A7C15L));
+        String first = FIRST_POOL[pick(FIRST_CDF, rnd.nextDouble())];
+        String last = LAST_POOL[pick(LAST_CDF, rnd.nextDouble())];
+
+        Patient p = new Patient();
+        p.setName(first + " " + last);
+        p.setEmail(first.toLowerCase() + "." + last.toLowerCase() + "." + i + "@"
+                + EMAIL_DOMAINS[rnd.nextInt(EMAIL_DOMAINS.length)]);
+        p.setPhone("6" + String.format("%09d", (i * PHONE_MULTIPLIER + PHONE_OFFSET) % PHONE_SPACE));
+
+        // age mix: ~20% minors, ~55% adults, ~25% seniors
+        double band = rnd.nextDouble();
+        int age = band < 0.20 ? rnd.nextInt(0, 18) : band < 0.75 ? rnd.nextInt(18, 60) : rnd.nextInt(60, 96);
+        LocalDate dob = anchor.toLocalDate().minusYears(age).minusDays(rnd.nextInt(365));
+        p.setDob(dob);
+
+        OffsetDateTime createdAt = anchor.minusSeconds(rnd.nextLong(CREATED_SPREAD_SECONDS));
+        OffsetDateTime born = dob.atStartOfDay().atOffset(ZoneOffset.UTC);
+        p.setCreatedAt(createdAt.isBefore(born) ? born : createdAt);
+        p.setActive(rnd.nextDouble() >= 0.05);
+        return p;
+    }
+
+    /**
+     * Generates patients [0, count) on {@code threads} workers and hands batches to {@code sink}.
+     * @return number of patients written (already present batches excluded)
+     */
+    public long generateAll(long count, Consumer<List<Patient>> sink, SeedProgress progress) throws Exception {
+        if (count > PHONE_SPACE) throw new IllegalArgumentException("at most " + PHONE_SPACE + " synthetic patients");
+        long started = System.nanoTime();
+        AtomicInteger seq = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "seed-generator-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (long from = 0; from < count; from += chunkSize) {
+                long start = from, end = Math.min(count, from + chunkSize);
+                futures.add(pool.submit(() -> generateChunk(start, end, sink, progress)));
+            }
+            long written = 0;
+            for (Future<Long> f : futures) written += f.get();
+            double secs = (System.nanoTime() - started) / 1e9;
+            log.info("Synthetic seed finished: requested {}, written {}, in {}s ({} rows/s)",
+                    count, written, String.format("%.1f", secs), Math.round(written / Math.max(secs, 0.001)));
+            return written;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long generateChunk(long from, long to, Consumer<List<Patient>> sink, SeedProgress progress) {
+        long written = 0;
+        List<Patient> batch = new ArrayList<>(batchSize);
+        for (long i = from; i < to; i++) {
+            batch.add(generate(i));
+            if (batch.size() == batchSize || i == to - 1) {
+                progress.read(batch.size());
+                if (!writer.existingEmails(List.of(batch.get(batch.size() - 1).getEmail())).isEmpty()) {
+                    progress.skipped(batch.size());   // loaded by an earlier run
+                } else {
+                    written += write(batch, sink, progress);
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * A batch that was only partly loaded by an earlier (interrupted) run fails its last-email check but still hits
+     * unique keys. Only the failed rows are looked at again: those already present are skipped, the rest retried
+     * one by one, as PatientImportService does for CSV chunks.
+     */
+    private long write(List<Patient> batch, Consumer<List<Patient>> sink, SeedProgress progress) {
+        try {
+            sink.accept(batch);
+            progress.added(batch.size());
+            return batch.size();
+        } catch (PatientBatchWriter.PartialInsertException e) {
+            List<Patient> failed = e.getFailed();
+            long written = batch.size() - failed.size();
+            progress.added(written);
+            Set<String> present = writer.existingEmails(failed.stream().map(Patient::getEmail).toList());
+            for (Patient p : failed) {
+                if (present.contains(p.getEmail().toLowerCase(Locale.ROOT))) {
+                    progress.skipped(1);
+                    continue;
+                }
+                try {
+                    sink.accept(List.of(p));
+                    progress.added(1);
+                    written++;
+                } catch (DataIntegrityViolationException rowError) {
+                    progress.skipped(1);
+                    log.warn("Synthetic patient {} not inserted: {}", p.getEmail(), rowError.getMessage());
+                }
+            }
+            return written;
+        }
+    }
+
+    /** {@code common} in order (the Zipf head), then every a+b+c combination not already present (the tail). */
+    private static String[] pool(String[] common, String[] a, String[] b, String[] c) {
+        Set<String> names = new LinkedHashSet<>(List.of(common));
+        for (String x : a) {
+            for (String y : b) {
+                for (String z : c) names.add(x + y + z);
+            }
+        }
+        return names.toArray(String[]::new);
+    }
+
+    private static double[] zipfCdf(int n, double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    private static int pick(double[] cdf, double u) {
+        int lo = 0, hi = cdf.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cdf[mid] < u) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
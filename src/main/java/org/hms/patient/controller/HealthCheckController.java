@@ -1,16 +1,25 @@
 package org.hms.patient.controller;
 
+import org.hms.patient.service.ReadinessService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/healthcheck")
 public class HealthCheckController {
+    private static final String SERVICE = "patient-service";
+
+    private final ReadinessService readiness;
+
+    public HealthCheckController(ReadinessService readiness) {
+        this.readiness = readiness;
+    }
 
     // --- Liveness probe ---
     @GetMapping("/live")
@@ -19,33 +28,30 @@ public class HealthCheckController {
                 Map.of(
                         "status", "UP",
                         "timestamp", OffsetDateTime.now().toString(),
-                        "service", "doctor-service"
+                        "service", SERVICE
                 )
         );
     }
 
     // --- Readiness probe ---
+    // READY only once the seed has settled, the (cached) DB ping succeeds and all warm-ups are done
     @GetMapping("/ready")
     public ResponseEntity<Map<String, Object>> ready() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        boolean ready;
         try {
-            // optionally check DB or cache connectivity
-            // e.g. run a lightweight query if you want
-            return ResponseEntity.ok(
-                    Map.of(
-                            "status", "READY",
-                            "timestamp", OffsetDateTime.now().toString(),
-                            "service", "doctor-service"
-                    )
-            );
+            ready = readiness.isReady();
+            body.put("status", ready ? "READY" : "NOT_READY");
+            body.put("timestamp", OffsetDateTime.now().toString());
+            body.put("service", SERVICE);
+            body.put("checks", readiness.details());
         } catch (Exception e) {
-            return ResponseEntity.status(503).body(
-                    Map.of(
-                            "status", "NOT_READY",
-                            "timestamp", OffsetDateTime.now().toString(),
-                            "service", "doctor-service",
-                            "error", e.getMessage()
-                    )
-            );
+            ready = false;
+            body.put("status", "NOT_READY");
+            body.put("timestamp", OffsetDateTime.now().toString());
+            body.put("service", SERVICE);
+            body.put("error", String.valueOf(e.getMessage()));
         }
+        return ready ? ResponseEntity.ok(body) : ResponseEntity.status(503).body(body);
     }
 }
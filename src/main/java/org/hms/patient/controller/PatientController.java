@@ -2,17 +2,24 @@ package org.hms.patient.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.hms.patient.dto.CountStrategy;
+import org.hms.patient.dto.DuplicateCandidate;
 import org.hms.patient.dto.PaginationResponse;
+import org.hms.patient.dto.PatientStats;
 import org.hms.patient.exception.BadRequestException;
 import org.hms.patient.exception.ResourceNotFoundException;
 import org.hms.patient.model.Patient;
 import org.hms.patient.service.PatientService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Tag(name = "Patient API", description = "CRUD and search for patients")
 @RestController
@@ -21,6 +28,11 @@ public class PatientController {
     @Autowired
     private PatientService service;
 
+    @Value("${patient.duplicates.top-k:5}")
+    private int duplicatesTopK;
+    @Value("${patient.duplicates.max-k:50}")
+    private int duplicatesMaxK;
+
     @Operation(summary = "Create a patient")
     @PostMapping
     public ResponseEntity<Patient> create(@RequestBody Patient p) {
@@ -28,15 +40,50 @@ public class PatientController {
             throw new BadRequestException("email and phone are required");
         }
         Patient saved = service.create(p);
-        return ResponseEntity.created(URI.create("/v1/patients/" + saved.getPatientId())).body(saved);
+        ResponseEntity.BodyBuilder created = ResponseEntity.created(URI.create("/v1/patients/" + saved.getPatientId()));
+        // advisory only: the patient is created either way
+        List<Long> dups = service.findDuplicateIds(saved.getName(), saved.getDob(), saved.getPhone(),
+                duplicatesTopK, saved.getPatientId());
+        if (!dups.isEmpty()) {
+            created.header("X-Possible-Duplicates", dups.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+        return created.body(saved);
     }
 
-    @Operation(summary = "List patients (paginated)")
+    @Operation(summary = "Patient counts by status, age band and registration month")
+    @GetMapping("/stats")
+    public PatientStats stats() {
+        return service.stats();
+    }
+
+    @Operation(summary = "Find likely duplicates of a patient by name, dob and/or phone")
+    @GetMapping("/duplicates")
+    public List<DuplicateCandidate> duplicates(@RequestParam(required = false) String name,
+                                               @RequestParam(required = false) String dob,
+                                               @RequestParam(required = false) String phone,
+                                               @RequestParam(required = false) Integer limit) {
+        if ((name == null || name.isBlank()) && (phone == null || phone.isBlank())) {
+            throw new BadRequestException("name or phone is required");
+        }
+        LocalDate birthDate = null;
+        if (dob != null && !dob.isBlank()) {
+            try {
+                birthDate = LocalDate.parse(dob);
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("dob must be an ISO date (yyyy-MM-dd)");
+            }
+        }
+        int k = limit == null ? duplicatesTopK : Math.max(1, Math.min(limit, duplicatesMaxK));
+        return service.findDuplicates(name, birthDate, phone, k, null);
+    }
+
+    @Operation(summary = "List patients (paginated, newest first)")
     @GetMapping
     public PaginationResponse<Patient> list(@RequestParam(defaultValue = "0") int page,
-                                            @RequestParam(defaultValue = "20") int size) {
-        Page<Patient> p = service.list(page, size);
-        return new PaginationResponse<>(p.getContent(), p.getNumber(), p.getSize(), p.getTotalElements(), p.getTotalPages());
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(defaultValue = "false") boolean activeOnly,
+                                            @RequestParam(required = false) String count) {
+        return service.list(page, size, activeOnly, CountStrategy.from(count));
     }
 
     @Operation(summary = "Get a patient by id")
@@ -65,13 +112,13 @@ public class PatientController {
     public PaginationResponse<Patient> search(@RequestParam(required = false) String name,
                                               @RequestParam(required = false) String phone,
                                               @RequestParam(defaultValue = "0") int page,
-                                              @RequestParam(defaultValue = "20") int size) {
-        Page<Patient> p;
-        if (name != null) p = service.searchByName(name, page, size);
-        else if (phone != null) p = service.searchByPhone(phone, page, size);
-        else p = service.list(page, size);
-
-        return new PaginationResponse<>(p.getContent(), p.getNumber(), p.getSize(), p.getTotalElements(), p.getTotalPages());
+                                              @RequestParam(defaultValue = "20") int size,
+                                              @RequestParam(defaultValue = "false") boolean activeOnly,
+                                              @RequestParam(required = false) String count) {
+        CountStrategy strategy = CountStrategy.from(count);
+        if (name != null) return service.searchByName(name, page, size, activeOnly, strategy);
+        if (phone != null) return service.searchByPhone(phone, page, size, activeOnly, strategy);
+        return service.list(page, size, activeOnly, strategy);
     }
 
     @Operation(summary = "Check if patient exists and active")
@@ -0,0 +1,39 @@
+package org.hms.patient.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.hms.patient.exception.ResourceNotFoundException;
+import org.hms.patient.service.ImportJob;
+import org.hms.patient.service.PatientImportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+
+@Tag(name = "Patient Import API", description = "Asynchronous bulk CSV import of patients")
+@RestController
+@RequestMapping("/v1/patients/imports")
+public class PatientImportController {
+    private final PatientImportService imports;
+
+    public PatientImportController(PatientImportService imports) {
+        this.imports = imports;
+    }
+
+    @Operation(summary = "Start a bulk CSV import (returns a job id immediately)")
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJob> start(@RequestParam("file") MultipartFile file) throws IOException {
+        ImportJob job = imports.submit(file);
+        return ResponseEntity.accepted().location(URI.create("/v1/patients/imports/" + job.getId())).body(job);
+    }
+
+    @Operation(summary = "Get import job progress, throughput and rejected rows")
+    @GetMapping("/{id}")
+    public ImportJob status(@PathVariable String id) {
+        return imports.find(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with id " + id));
+    }
+}
@@ -0,0 +1,22 @@
+package org.hms.patient.dto;
+
+import org.hms.patient.exception.BadRequestException;
+
+/**
+ * How totalElements/totalPages of a paginated response were obtained.
+ * - EXACT: COUNT(*) for every page
+ * - CACHED: periodically refreshed count, adjusted by writes through PatientService
+ * - ESTIMATED: InnoDB persistent table statistics (mysql.innodb_table_stats.n_rows)
+ */
+public enum CountStrategy {
+    EXACT, CACHED, ESTIMATED;
+
+    public static CountStrategy from(String value) {
+        if (value == null || value.isBlank()) return null;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("count must be one of exact, cached, estimated");
+        }
+    }
+}
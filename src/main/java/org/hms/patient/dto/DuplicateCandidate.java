@@ -0,0 +1,36 @@
+package org.hms.patient.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** A stored patient that may be the same person as the one searched for, with how it matched. */
+public class DuplicateCandidate {
+    private Long patientId;
+    private String name;
+    private LocalDate dob;
+    private String phone;
+    private boolean active;
+    private double score;
+    private List<String> matchedOn;
+
+    public DuplicateCandidate() {}
+
+    public DuplicateCandidate(Long patientId, String name, LocalDate dob, String phone, boolean active,
+                              double score, List<String> matchedOn) {
+        this.patientId = patientId;
+        this.name = name;
+        this.dob = dob;
+        this.phone = phone;
+        this.active = active;
+        this.score = score;
+        this.matchedOn = matchedOn;
+    }
+
+    public Long getPatientId() { return patientId; }
+    public String getName() { return name; }
+    public LocalDate getDob() { return dob; }
+    public String getPhone() { return phone; }
+    public boolean isActive() { return active; }
+    public double getScore() { return score; }
+    public List<String> getMatchedOn() { return matchedOn; }
+}
@@ -1,5 +1,8 @@
 package org.hms.patient.dto;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
 import java.util.List;
 
 public class PaginationResponse<T> {
@@ -8,6 +11,7 @@ public class PaginationResponse<T> {
     private int size;
     private long totalElements;
     private int totalPages;
+    private CountStrategy countStrategy = CountStrategy.EXACT;
 
     public PaginationResponse() {}
 
@@ -19,6 +23,29 @@ public class PaginationResponse<T> {
         this.totalPages = totalPages;
     }
 
+    public PaginationResponse(List<T> data, int page, int size, long totalElements, int totalPages,
+                              CountStrategy countStrategy) {
+        this(data, page, size, totalElements, totalPages);
+        this.countStrategy = countStrategy;
+    }
+
+    public static <T> PaginationResponse<T> of(Page<T> p) {
+        return new PaginationResponse<>(p.getContent(), p.getNumber(), p.getSize(),
+                p.getTotalElements(), p.getTotalPages(), CountStrategy.EXACT);
+    }
+
+    /**
+     * Builds a response from a count-less slice and a non-exact total.
+     * The total is corrected with what the slice itself proves (last page reached / more pages exist).
+     */
+    public static <T> PaginationResponse<T> of(Slice<T> s, long total, CountStrategy strategy) {
+        long seen = (long) s.getNumber() * s.getSize() + s.getNumberOfElements();
+        if (!s.hasNext() && s.hasContent()) total = seen;
+        else if (s.hasNext()) total = Math.max(total, seen + 1);
+        int pages = s.getSize() == 0 ? 1 : (int) Math.ceil((double) total / s.getSize());
+        return new PaginationResponse<>(s.getContent(), s.getNumber(), s.getSize(), total, pages, strategy);
+    }
+
     public List<T> getData() { return data; }
     public void setData(List<T> data) { this.data = data; }
     public int getPage() { return page; }
@@ -29,4 +56,6 @@ public class PaginationResponse<T> {
     public void setTotalElements(long totalElements) { this.totalElements = totalElements; }
     public int getTotalPages() { return totalPages; }
     public void setTotalPages(int totalPages) { this.totalPages = totalPages; }
+    public CountStrategy getCountStrategy() { return countStrategy; }
+    public void setCountStrategy(CountStrategy countStrategy) { this.countStrategy = countStrategy; }
 }
@@ -0,0 +1,31 @@
+package org.hms.patient.dto;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+/** Body of GET /v1/patients/stats. */
+public class PatientStats {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byAgeBand;
+    private Map<String, Long> byRegistrationMonth;
+    private OffsetDateTime reconciledAt;
+
+    public PatientStats() {}
+
+    public PatientStats(long total, Map<String, Long> byStatus, Map<String, Long> byAgeBand,
+                        Map<String, Long> byRegistrationMonth, OffsetDateTime reconciledAt) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byAgeBand = byAgeBand;
+        this.byRegistrationMonth = byRegistrationMonth;
+        this.reconciledAt = reconciledAt;
+    }
+
+    public long getTotal() { return total; }
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public Map<String, Long> getByAgeBand() { return byAgeBand; }
+    public Map<String, Long> getByRegistrationMonth() { return byRegistrationMonth; }
+    /** When the aggregates were last recomputed from the database; writes since then are applied incrementally. */
+    public OffsetDateTime getReconciledAt() { return reconciledAt; }
+}
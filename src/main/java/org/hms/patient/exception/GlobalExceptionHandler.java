@@ -1,6 +1,5 @@
 package org.hms.patient.exception;
 
-import org.apache.coyote.BadRequestException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.*;
@@ -55,6 +54,14 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e);
     }
 
+    @ExceptionHandler(RequestTimeoutException.class)
+    public ResponseEntity<ApiError> handleTimeout(RequestTimeoutException ex, HttpServletRequest req) {
+        String cid = UUID.randomUUID().toString();
+        log.warn("Timeout: {} cid={} path={}", ex.getMessage(), cid, req.getRequestURI());
+        ApiError e = new ApiError("TIMEOUT", ex.getMessage(), cid);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handle(Exception ex, HttpServletRequest req) {
         String cid = UUID.randomUUID().toString();
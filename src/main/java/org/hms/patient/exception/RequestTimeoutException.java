@@ -0,0 +1,5 @@
+package org.hms.patient.exception;
+
+public class RequestTimeoutException extends RuntimeException {
+    public RequestTimeoutException(String msg) { super(msg); }
+}
@@ -0,0 +1,239 @@
+package org.hms.patient.loadtest;
+
+import org.hms.patient.config.SyntheticPatientGenerator;
+import org.hms.patient.model.Patient;
+import org.hms.patient.repository.PatientRepository;
+import org.hms.patient.service.ReadinessService;
+import org.hms.patient.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Self-contained load test (profile "loadtest"): once the instance reports ready, drives /v1/patients over HTTP
+ * with a weighted operation mix and logs throughput and latency percentiles per operation.
+ *
+ * Mix format: "get:60,list:20,search:15,create:5" (weights, not necessarily summing to 100).
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestRunner {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private final ReadinessService readiness;
+    private final PatientRepository repo;
+    private final ShardRouter router;
+    private final ApplicationContext context;
+
+    @Value("${server.port:8081}")
+    private int port;
+    @Value("${patient.loadtest.mix:get:60,list:20,search:15,create:5}")
+    private String mix;
+    @Value("${patient.loadtest.concurrency:32}")
+    private int concurrency;
+    @Value("${patient.loadtest.duration-seconds:60}")
+    private int durationSeconds;
+    @Value("${patient.loadtest.warmup-seconds:10}")
+    private int warmupSeconds;
+    @Value("${patient.loadtest.username:admin}")
+    private String username;
+    @Value("${patient.loadtest.password:password}")
+    private String password;
+    @Value("${patient.loadtest.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    private final AtomicLong createSeq = new AtomicLong();
+
+    public LoadTestRunner(ReadinessService readiness, PatientRepository repo, ShardRouter router,
+                          ApplicationContext context) {
+        this.readiness = readiness;
+        this.repo = repo;
+        this.router = router;
+        this.context = context;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread t = new Thread(this::runSafely, "loadtest-driver");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void runSafely() {
+        int exitCode = 0;
+        try {
+            run();
+        } catch (Exception e) {
+            log.error("Load test failed", e);
+            exitCode = 1;
+        }
+        if (exitOnFinish) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    void run() throws Exception {
+        while (!readiness.isReady()) {
+            log.info("Load test waiting for readiness: {}", readiness.details());
+            Thread.sleep(2000);
+        }
+        long maxId = router.onAll(shard -> repo.findTopByOrderByPatientIdDesc().map(Patient::getPatientId).orElse(0L))
+                .stream().mapToLong(Long::longValue).max().orElse(0L);
+        if (maxId == 0) throw new IllegalStateException("no patients loaded — set patient.seed.synthetic.count");
+
+        List<String> ops = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            ops.add(kv[0].trim());
+            weights.add(Integer.parseInt(kv[1].trim()));
+        }
+        int totalWeight = weights.stream().mapToInt(Integer::intValue).sum();
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String auth = "Basic " + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        String base = "http://localhost:" + port + "/v1/patients";
+
+        log.info("Load test: {} workers, warm-up {}s, measure {}s, mix {}, ids 1..{}",
+                concurrency, warmupSeconds, durationSeconds, mix, maxId);
+
+        Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+        long warmupEnd = System.nanoTime() + warmupSeconds * 1_000_000_000L;
+        long end = warmupEnd + durationSeconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (System.nanoTime() < end) {
+                        int r = rnd.nextInt(totalWeight), idx = 0;
+                        while (r >= weights.get(idx)) r -= weights.get(idx++);
+                        String op = ops.get(idx);
+                        HttpRequest req = request(op, base, auth, maxId, rnd);
+                        long t0 = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> resp = client.send(req, HttpResponse.BodyHandlers.discarding());
+                            ok = resp.statusCode() < 400 || (op.equals("get") && resp.statusCode() == 404);
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long t1 = System.nanoTime();
+                        if (t0 >= warmupEnd) recorders.computeIfAbsent(op, k -> new Recorder()).record(t1 - t0, ok);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-worker-" + w);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        report(ops, recorders);
+    }
+
+    private HttpRequest request(String op, String base, String auth, long maxId, ThreadLocalRandom rnd) {
+        HttpRequest.Builder b = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30)).header("Authorization", auth);
+        switch (op) {
+            case "get":
+                return b.uri(URI.create(base + "/" + rnd.nextLong(1, maxId + 1))).GET().build();
+            case "list":
+                return b.uri(URI.create(base + "?page=" + rnd.nextInt(0, 50) + "&size=20&activeOnly=" + rnd.nextBoolean()))
+                        .GET().build();
+            case "search": {
+                List<String> names = SyntheticPatientGenerator.lastNames();
+                return b.uri(URI.create(base + "/search?name=" + names.get(rnd.nextInt(names.size())) + "&page=0&size=20"))
+                        .GET().build();
+            }
+            case "create": {
+                long n = createSeq.incrementAndGet();
+                String json = "{\"name\":\"Load Test " + n + "\",\"email\":\"lt-" + UUID.randomUUID() + "@load.test\","
+                        + "\"phone\":\"5" + String.format("%09d", rnd.nextLong(1_000_000_000L)) + "\","
+                        + "\"dob\":\"1990-01-01\",\"createdAt\":\"2026-01-01T00:00:00Z\",\"active\":true}";
+                return b.uri(URI.create(base)).header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+            }
+            default:
+                throw new IllegalArgumentException("unknown load test operation: " + op);
+        }
+    }
+
+    /**
+     * Logs the per-operation table. An operation that recorded nothing in the measured window is reported as such
+     * (never as 0 req/s), and a run with no samples at all fails.
+     */
+    private void report(List<String> ops, Map<String, Recorder> recorders) {
+        StringBuilder sb = new StringBuilder("\nLoad test results (" + durationSeconds + "s, " + concurrency + " workers)\n");
+        sb.append(String.format("%-8s %9s %7s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        long totalCount = 0;
+        List<String> empty = new ArrayList<>();
+        for (String op : new TreeSet<>(ops)) {
+            Recorder r = recorders.get(op);
+            long[] lat = r == null ? new long[0] : r.snapshot();
+            if (lat.length == 0) {
+                empty.add(op);
+                sb.append(String.format("%-8s %9s%n", op, "no samples"));
+                continue;
+            }
+            Arrays.sort(lat);
+            totalCount += lat.length;
+            sb.append(String.format("%-8s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    op, lat.length, r.errors.get(), (double) lat.length / durationSeconds,
+                    pct(lat, 50), pct(lat, 95), pct(lat, 99), lat[lat.length - 1] / 1e6));
+        }
+        sb.append(String.format("total    %9d %7s %9.1f%n", totalCount, "", (double) totalCount / durationSeconds));
+        log.info(sb.toString());
+        if (totalCount == 0) {
+            throw new IllegalStateException("load test recorded no requests in " + durationSeconds
+                    + "s; every request outlasted the run (raise patient.loadtest.duration-seconds)");
+        }
+        if (!empty.isEmpty()) {
+            log.warn("Load test recorded no {} requests in {}s; their throughput is unknown, not zero", empty, durationSeconds);
+        }
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int i = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1e6;
+    }
+
+    /** Latencies (ns) for one operation. */
+    private static class Recorder {
+        private long[] values = new long[1024];
+        private int size;
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, boolean ok) {
+            if (!ok) errors.incrementAndGet();
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = nanos;
+        }
+
+        synchronized long[] snapshot() { return Arrays.copyOf(values, size); }
+    }
+}
@@ -1,22 +1,34 @@
 package org.hms.patient.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 
 @Entity
 @Table(name = "patients",
         uniqueConstraints = {
-                @UniqueConstraint(columnNames = "email"),
-                @UniqueConstraint(columnNames = "phone")
+                @UniqueConstraint(name = "uk_patients_email", columnNames = "email"),
+                @UniqueConstraint(name = "uk_patients_phone", columnNames = "phone")
+        },
+        // mirrors db/migration — Flyway owns the schema, these are informational for JPA tooling
+        indexes = {
+                @Index(name = "idx_patients_active_created", columnList = "active, created_at, patient_id"),
+                @Index(name = "idx_patients_created", columnList = "created_at, patient_id")
         })
-public class Patient {
+public class Patient implements Persistable<Long> {
 
+    // assigned by PatientIdGenerator before the first save, so ids are unique across shards
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "patient_id")
     private Long patientId;
 
+    // lets save() persist a new patient with an assigned id instead of merging (SELECT + INSERT)
+    @Transient
+    private boolean isNew = true;
+
     @Column(nullable = false)
     private String name;
 
@@ -44,6 +56,18 @@ public class Patient {
         this.patientId = patientId;
     }
 
+    @Override
+    @JsonIgnore
+    public Long getId() { return patientId; }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { isNew = false; }
+
     // other getters/setters...
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
@@ -3,16 +3,41 @@ package org.hms.patient.repository;
 import org.hms.patient.model.Patient;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
 public interface PatientRepository extends JpaRepository<Patient, Long> {
     Page<Patient> findByNameContainingIgnoreCase(String name, Pageable p);
     Page<Patient> findByPhoneContaining(String phone, Pageable p);
+
+    // active-only variants, served by idx_patients_active_created
+    Page<Patient> findByActiveTrue(Pageable p);
+    Page<Patient> findByActiveTrueAndNameContainingIgnoreCase(String name, Pageable p);
+    Page<Patient> findByActiveTrueAndPhoneContaining(String phone, Pageable p);
+
+    // count-less (Slice) variants for non-exact count strategies: fetch size + 1 rows, no COUNT(*)
+    @Query("select p from Patient p")
+    Slice<Patient> readAllBy(Pageable p);
+    Slice<Patient> readByActiveTrue(Pageable p);
+    Slice<Patient> readByNameContainingIgnoreCase(String name, Pageable p);
+    Slice<Patient> readByPhoneContaining(String phone, Pageable p);
+    Slice<Patient> readByActiveTrueAndNameContainingIgnoreCase(String name, Pageable p);
+    Slice<Patient> readByActiveTrueAndPhoneContaining(String phone, Pageable p);
+
+    long countByActiveTrue();
+    long countByNameContainingIgnoreCase(String name);
+    long countByPhoneContaining(String phone);
+    long countByActiveTrueAndNameContainingIgnoreCase(String name);
+    long countByActiveTrueAndPhoneContaining(String phone);
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
+    // cross-shard uniqueness checks; the id excludes the patient being updated
+    boolean existsByEmailAndPatientIdNot(String email, Long patientId);
+    boolean existsByPhoneAndPatientIdNot(String phone, Long patientId);
     Optional<Patient> findTopByOrderByPatientIdDesc();
 
 }
@@ -28,6 +28,8 @@ public class RoleBasedAccessFilter extends OncePerRequestFilter {
             "/swagger-resources",
             "/actuator/health",
             "/actuator/info",
+            "/healthcheck/live",
+            "/healthcheck/ready",
             "/favicon.ico"
     );
 
@@ -37,6 +39,7 @@ public class RoleBasedAccessFilter extends OncePerRequestFilter {
         if (path.startsWith("/v3/api-docs")) return true;
         if (path.startsWith("/swagger-ui") || path.startsWith("/swagger-resources")) return true;
         if (path.startsWith("/actuator")) return path.equals("/actuator/health") || path.equals("/actuator/info");
+        if (path.startsWith("/healthcheck/")) return true;
         if (path.equals("/favicon.ico")) return true;
         return false;
     }
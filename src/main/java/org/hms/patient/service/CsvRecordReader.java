@@ -0,0 +1,108 @@
+package org.hms.patient.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ * - Fields may be quoted; inside quotes commas, CR/LF and doubled quotes ("") are literal
+ * - Records end at LF, CRLF or CR outside quotes; blank lines are skipped
+ * - Reads one record at a time, so files of any size are parsed in constant memory
+ * - A record longer than {@code maxRecordChars} (typically a stray quote swallowing the rest of the file) fails
+ *   the read: the record boundary is lost at that point, so the parser cannot skip it and resync
+ */
+public class CsvRecordReader implements Closeable {
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final int maxRecordChars;
+    private final char[] buf = new char[64 * 1024];
+    private int pos = 0, len = 0;
+    private long line = 1;
+    private long recordLine = 1;
+
+    public CsvRecordReader(Reader in, int maxRecordChars) {
+        this.in = in;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /** Physical line (1-based) on which the last returned record started. */
+    public long getRecordLine() { return recordLine; }
+
+    /** @return the next record, or null at end of input */
+    public List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false, fieldStarted = false, any = false;
+        int chars = 0;
+        recordLine = line;
+
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                if (quoted) throw new IOException("Unterminated quoted field starting on line " + recordLine);
+                if (!any) return null;
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++chars > maxRecordChars) {
+                throw new IOException("Record starting on line " + recordLine + " is longer than " + maxRecordChars
+                        + " characters" + (quoted ? " (unterminated quoted field?)" : ""));
+            }
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') { read(); field.append('"'); }
+                    else quoted = false;
+                } else {
+                    if (c == '\n' || (c == '\r' && peek() != '\n')) line++;
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') read();
+                line++;
+                if (!any) { recordLine = line; chars = 0; continue; }   // blank line
+                fields.add(field.toString());
+                return fields;
+            }
+            any = true;
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = false;
+            } else if (c == '"' && !fieldStarted) {
+                quoted = true;
+                fieldStarted = true;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == len && !fill()) return EOF;
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == len && !fill()) return EOF;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        len = in.read(buf, 0, buf.length);
+        pos = 0;
+        if (len <= 0) { len = 0; return false; }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,102 @@
+package org.hms.patient.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one bulk CSV import, updated concurrently by the import workers and
+ * serialized as-is by GET /v1/patients/imports/{id}.
+ */
+public class ImportJob {
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public static class Rejection {
+        private final long line;
+        private final String reason;
+
+        public Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() { return line; }
+        public String getReason() { return reason; }
+    }
+
+    /** Only the first rejections are kept with details; the count covers all of them. */
+    static final int MAX_REJECTION_DETAILS = 100;
+
+    private final String id;
+    private final String fileName;
+    private final long sizeBytes;
+    private final OffsetDateTime submittedAt = OffsetDateTime.now();
+    private volatile State state = State.QUEUED;
+    private volatile OffsetDateTime startedAt;
+    private volatile OffsetDateTime finishedAt;
+    private volatile String error;
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    public ImportJob(String id, String fileName, long sizeBytes) {
+        this.id = id;
+        this.fileName = fileName;
+        this.sizeBytes = sizeBytes;
+    }
+
+    void start() { startedAt = OffsetDateTime.now(); state = State.RUNNING; }
+    void complete() { finishedAt = OffsetDateTime.now(); state = State.COMPLETED; }
+    void fail(String message) { error = message; finishedAt = OffsetDateTime.now(); state = State.FAILED; }
+
+    void addBytesRead(long n) { bytesRead.addAndGet(n); }
+    void addRowsRead(long n) { rowsRead.addAndGet(n); }
+    void addImported(long n) { imported.addAndGet(n); }
+
+    void reject(long line, String reason) {
+        rejected.incrementAndGet();
+        synchronized (rejections) {
+            if (rejections.size() < MAX_REJECTION_DETAILS) rejections.add(new Rejection(line, reason));
+        }
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public long getSizeBytes() { return sizeBytes; }
+    public State getState() { return state; }
+    public OffsetDateTime getSubmittedAt() { return submittedAt; }
+    public OffsetDateTime getStartedAt() { return startedAt; }
+    public OffsetDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    public long getRowsRead() { return rowsRead.get(); }
+    public long getImported() { return imported.get(); }
+    public long getRejected() { return rejected.get(); }
+
+    public boolean isFinished() { return state == State.COMPLETED || state == State.FAILED; }
+
+    /** Share of the file consumed so far, 0-100. */
+    public double getProgressPercent() {
+        if (state == State.COMPLETED) return 100.0;
+        if (sizeBytes <= 0) return 0.0;
+        return Math.min(100.0, Math.round(1000.0 * bytesRead.get() / sizeBytes) / 10.0);
+    }
+
+    /** Rows read per second since the job started. */
+    public long getRowsPerSecond() {
+        if (startedAt == null) return 0;
+        OffsetDateTime end = finishedAt != null ? finishedAt : OffsetDateTime.now();
+        long ms = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsRead.get() * 1000 / ms;
+    }
+
+    public List<Rejection> getRejections() {
+        synchronized (rejections) {
+            return new ArrayList<>(rejections);
+        }
+    }
+}
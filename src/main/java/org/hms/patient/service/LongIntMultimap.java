@@ -0,0 +1,171 @@
+package org.hms.patient.service;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Open-addressing multimap from long keys to int values, for the in-memory duplicate index.
+ * - A key with one value costs a slot in three primitive arrays; only keys with several values get an
+ *   extra int[] (count in element 0), so near-unique keys (phones, name+dob) stay small
+ * - Linear probing with backward-shift deletion, no tombstones; resized at 60% load
+ * - Not thread-safe: PatientDuplicateIndex guards it with a read/write lock
+ */
+final class LongIntMultimap {
+    private static final int NONE = -1;
+
+    private long[] keys;
+    private int[] single;
+    private int[][] many;
+    private boolean[] used;
+    private int size;
+
+    LongIntMultimap(int expectedKeys) {
+        int cap = Integer.highestOneBit(Math.max(16, (int) (expectedKeys / 0.6)) - 1) << 1;
+        allocate(cap);
+    }
+
+    /** Number of distinct keys. */
+    int size() { return size; }
+
+    /** @return the first value filed under {@code key}, or -1 */
+    int first(long key) {
+        int slot = find(key);
+        if (slot < 0) return NONE;
+        return many[slot] != null ? many[slot][1] : single[slot];
+    }
+
+    /** Calls {@code visitor} for each value of {@code key} until it returns false. */
+    void forEach(long key, IntPredicate visitor) {
+        int slot = find(key);
+        if (slot < 0) return;
+        int[] values = many[slot];
+        if (values == null) {
+            visitor.test(single[slot]);
+            return;
+        }
+        for (int i = 1; i <= values[0]; i++) {
+            if (!visitor.test(values[i])) return;
+        }
+    }
+
+    /** Adds {@code value} under {@code key} unless it is already there. */
+    void put(long key, int value) {
+        if (size + 1 > keys.length * 0.6) allocateAndRehash(keys.length * 2);
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                append(slot, value);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        single[slot] = value;
+        size++;
+    }
+
+    void remove(long key, int value) {
+        int slot = find(key);
+        if (slot < 0) return;
+        int[] values = many[slot];
+        if (values == null) {
+            if (single[slot] == value) delete(slot);
+            return;
+        }
+        int n = values[0];
+        for (int i = 1; i <= n; i++) {
+            if (values[i] != value) continue;
+            values[i] = values[n];
+            values[0] = --n;
+            if (n == 1) {
+                single[slot] = values[1];
+                many[slot] = null;
+            }
+            return;
+        }
+    }
+
+    private void append(int slot, int value) {
+        int[] values = many[slot];
+        if (values == null) {
+            if (single[slot] == value) return;
+            many[slot] = new int[]{2, single[slot], value, 0};
+            return;
+        }
+        int n = values[0];
+        for (int i = 1; i <= n; i++) {
+            if (values[i] == value) return;
+        }
+        if (n + 1 == values.length) {
+            values = Arrays.copyOf(values, values.length + (values.length >> 1) + 1);
+            many[slot] = values;
+        }
+        values[++n] = value;
+        values[0] = n;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) return slot;
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    private void delete(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        // shift later members of the probe run back into the hole so lookups never stop early
+        for (int next = (hole + 1) & mask; used[next]; next = (next + 1) & mask) {
+            int home = (int) mix(keys[next]) & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (!movable) continue;
+            keys[hole] = keys[next];
+            single[hole] = single[next];
+            many[hole] = many[next];
+            hole = next;
+        }
+        used[hole] = false;
+        many[hole] = null;
+        size--;
+    }
+
+    private void allocateAndRehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldSingle = single;
+        int[][] oldMany = many;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (!oldUsed[i]) continue;
+            int slot = (int) mix(oldKeys[i]) & mask;
+            while (used[slot]) slot = (slot + 1) & mask;
+            used[slot] = true;
+            keys[slot] = oldKeys[i];
+            single[slot] = oldSingle[i];
+            many[slot] = oldMany[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        single = new int[capacity];
+        many = new int[capacity][];
+        used = new boolean[capacity];
+    }
+
+    private static long mix(long h) {
+        // murmur3 fmix64, as in ShardRouter.shardFor
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,106 @@
+package org.hms.patient.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * String helpers for duplicate detection.
+ * - normalize: lower-case, accents stripped, punctuation dropped, single spaces
+ * - phoneticKey: Soundex codes of the first and last name tokens, order-insensitive, packed into an int
+ *   ("Vivaan Sharma", "Vivan Sharma" and "Sharma Vivan" share the key of S650-V150)
+ * - jaroWinkler: similarity in [0, 1], weighted towards a common prefix
+ */
+final class NameMatching {
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";   // A..Z
+
+    private NameMatching() {}
+
+    static String normalize(String name) {
+        if (name == null) return "";
+        String s = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return s.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9 ]", " ").trim().replaceAll(" +", " ");
+    }
+
+    /** @param normalized output of {@link #normalize}; 0 when it has no letters, otherwise below 2^28 */
+    static int phoneticKey(String normalized) {
+        if (normalized.isEmpty()) return 0;
+        String[] tokens = normalized.split(" ");
+        int first = soundexCode(soundex(tokens[0]));
+        int last = tokens.length > 1 ? soundexCode(soundex(tokens[tokens.length - 1])) : 0;
+        if (first == 0 || last == 0) return (first | last) << 14;
+        return Math.min(first, last) << 14 | Math.max(first, last);
+    }
+
+    /** Soundex code as 1..8918 (letter and three digits 0-6), 0 for none. */
+    private static int soundexCode(String soundex) {
+        if (soundex == null) return 0;
+        return 1 + (soundex.charAt(0) - 'A') * 343
+                + (soundex.charAt(1) - '0') * 49 + (soundex.charAt(2) - '0') * 7 + (soundex.charAt(3) - '0');
+    }
+
+    static String soundex(String word) {
+        StringBuilder out = new StringBuilder(4);
+        char lastCode = 0;
+        for (int i = 0; i < word.length() && out.length() < 4; i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') continue;
+            char code = SOUNDEX_CODES.charAt(c - 'a');
+            if (out.isEmpty()) {
+                out.append(Character.toUpperCase(c));
+                lastCode = code;
+            } else if (code != '0' && code != lastCode) {
+                out.append(code);
+                lastCode = code;
+            } else if (c != 'h' && c != 'w') {
+                lastCode = code;   // vowels separate repeated codes; h and w do not
+            }
+        }
+        if (out.isEmpty()) return null;
+        while (out.length() < 4) out.append('0');
+        return out.toString();
+    }
+
+    static double jaroWinkler(String a, String b) {
+        if (a.equals(b)) return 1.0;
+        if (a.isEmpty() || b.isEmpty()) return 0.0;
+        int window = Math.max(0, Math.max(a.length(), b.length()) / 2 - 1);
+        boolean[] aMatched = new boolean[a.length()];
+        boolean[] bMatched = new boolean[b.length()];
+        int matches = 0;
+        for (int i = 0; i < a.length(); i++) {
+            int from = Math.max(0, i - window), to = Math.min(b.length() - 1, i + window);
+            for (int j = from; j <= to; j++) {
+                if (!bMatched[j] && a.charAt(i) == b.charAt(j)) {
+                    aMatched[i] = bMatched[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) return 0.0;
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < a.length(); i++) {
+            if (!aMatched[i]) continue;
+            while (!bMatched[j]) j++;
+            if (a.charAt(i) != b.charAt(j)) transpositions++;
+            j++;
+        }
+        double m = matches;
+        double jaro = (m / a.length() + m / b.length() + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(a.length(), b.length())) && a.charAt(prefix) == b.charAt(prefix)) prefix++;
+        return jaro + prefix * 0.1 * (1 - jaro);
+    }
+
+    /**
+     * Digits only, and at most the last ten, so "+91 98765-43210" and "9876543210" compare equal.
+     * Packed as length * 10^10 + value so leading zeros still count; -1 when there are no digits.
+     */
+    static long phoneKey(String phone) {
+        if (phone == null) return -1;
+        String digits = phone.replaceAll("[^0-9]", "");
+        if (digits.isEmpty()) return -1;
+        if (digits.length() > 10) digits = digits.substring(digits.length() - 10);
+        return digits.length() * 10_000_000_000L + Long.parseLong(digits);
+    }
+}
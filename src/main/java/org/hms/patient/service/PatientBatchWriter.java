@@ -0,0 +1,126 @@
+package org.hms.patient.service;
+
+import org.hms.patient.model.Patient;
+import org.hms.patient.shard.PatientIdGenerator;
+import org.hms.patient.shard.ShardRouter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bulk write path shared by the seed loader, the synthetic generator and CSV import jobs.
+ * - Patients without an id get one from PatientIdGenerator; explicit ids move the sequence past them
+ * - Rows are grouped by owning shard and each group goes out as one JDBC batch in its own shard transaction
+ *   (collapsed into multi-row INSERTs by rewriteBatchedStatements)
+ */
+@Component
+public class PatientBatchWriter {
+    private static final String INSERT_SQL =
+            "INSERT INTO patients (patient_id, name, email, phone, dob, created_at, active) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /** Some shard groups hit a constraint; {@link #getFailed()} holds exactly the rows that were not written. */
+    public static class PartialInsertException extends DataIntegrityViolationException {
+        private final transient List<Patient> failed;
+
+        public PartialInsertException(List<Patient> failed, Throwable cause) {
+            super(failed.size() + " rows not inserted: " + cause.getMessage(), cause);
+            this.failed = failed;
+        }
+
+        public List<Patient> getFailed() { return failed; }
+    }
+
+    private final ShardRouter router;
+    private final PatientIdGenerator ids;
+    private final List<NamedParameterJdbcTemplate> named = new ArrayList<>();
+
+    public PatientBatchWriter(ShardRouter router, PatientIdGenerator ids) {
+        this.router = router;
+        this.ids = ids;
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            named.add(new NamedParameterJdbcTemplate(router.jdbc(shard)));
+        }
+    }
+
+    /**
+     * Each shard group is all-or-nothing, so failed rows can be retried one by one without double inserts.
+     * @throws PartialInsertException when one or more groups violated a constraint (the other groups are committed)
+     */
+    public void insert(List<Patient> list) {
+        if (list.isEmpty()) return;
+        long maxExplicit = -1;
+        for (Patient p : list) {
+            if (p.getPatientId() != null) maxExplicit = Math.max(maxExplicit, p.getPatientId());
+        }
+        if (maxExplicit >= 0) ids.ensureAbove(maxExplicit);
+
+        List<List<Patient>> groups = new ArrayList<>();
+        for (int shard = 0; shard < router.shardCount(); shard++) groups.add(new ArrayList<>());
+        for (Patient p : list) {
+            if (p.getPatientId() == null) p.setPatientId(ids.next());
+            groups.get(router.shardFor(p.getPatientId())).add(p);
+        }
+
+        List<Patient> failed = new ArrayList<>();
+        DataIntegrityViolationException cause = null;
+        for (int shard = 0; shard < groups.size(); shard++) {
+            List<Patient> group = groups.get(shard);
+            if (group.isEmpty()) continue;
+            try {
+                insert(shard, group);
+            } catch (DataIntegrityViolationException e) {
+                failed.addAll(group);
+                cause = e;
+            }
+        }
+        if (cause != null) throw new PartialInsertException(failed, cause);
+    }
+
+    private void insert(int shard, List<Patient> group) {
+        router.tx(shard).executeWithoutResult(status ->
+                router.jdbc(shard).batchUpdate(INSERT_SQL, group, group.size(), (ps, p) -> {
+                    ps.setLong(1, p.getPatientId());
+                    ps.setString(2, p.getName());
+                    ps.setString(3, p.getEmail());
+                    ps.setString(4, p.getPhone());
+                    if (p.getDob() != null) ps.setDate(5, Date.valueOf(p.getDob()));
+                    else ps.setNull(5, Types.DATE);
+                    ps.setTimestamp(6, Timestamp.from(p.getCreatedAt().toInstant()));
+                    ps.setBoolean(7, p.isActive());
+                }));
+    }
+
+    /** Emails among {@code emails} that are already stored on any shard, lower-cased (the unique index is case-insensitive). */
+    public Set<String> existingEmails(Collection<String> emails) {
+        return existing("SELECT email FROM patients WHERE email IN (:values)", emails);
+    }
+
+    public Set<String> existingPhones(Collection<String> phones) {
+        return existing("SELECT phone FROM patients WHERE phone IN (:values)", phones);
+    }
+
+    private Set<String> existing(String sql, Collection<String> values) {
+        Set<String> found = new HashSet<>();
+        if (values.isEmpty()) return found;
+        for (Set<String> part : router.onAll(shard -> {
+            Set<String> s = new HashSet<>();
+            named.get(shard).query(sql, new MapSqlParameterSource("values", values),
+                    rs -> { s.add(rs.getString(1).toLowerCase(Locale.ROOT)); });
+            return s;
+        })) {
+            found.addAll(part);
+        }
+        return found;
+    }
+}
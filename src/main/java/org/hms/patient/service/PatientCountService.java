@@ -0,0 +1,170 @@
+package org.hms.patient.service;
+
+import org.hms.patient.config.SeedCompletedEvent;
+import org.hms.patient.dto.CountStrategy;
+import org.hms.patient.repository.PatientRepository;
+import org.hms.patient.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals for paginated responses without a COUNT(*) per page.
+ * - Table totals (all / active) are refreshed on a schedule and adjusted in between by PatientService writes
+ * - Per-query totals (search) are cached for a short TTL
+ * - Estimates come from InnoDB table statistics (mysql.innodb_table_stats); when those are unavailable the cached
+ *   total is used instead
+ * - Every count is the sum over all shards
+ */
+@Service
+public class PatientCountService {
+    private static final Logger log = LoggerFactory.getLogger(PatientCountService.class);
+    private static final String WARMUP = "patient-counts";
+    private static final String INNODB_ROWS =
+            "SELECT n_rows FROM mysql.innodb_table_stats WHERE database_name = DATABASE() AND table_name = 'patients'";
+    private static final String SCHEMA_ROWS =
+            "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'patients'";
+
+    public record Count(long value, CountStrategy strategy) {}
+
+    private record CachedCount(long value, long expiresAt) {}
+
+    private final PatientRepository repo;
+    private final ShardRouter router;
+    private final RequestCoalescer coalescer;
+    private final ReadinessService readiness;
+    private final long queryTtlMs;
+    private final int maxQueryEntries;
+
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong active = new AtomicLong();
+    private volatile boolean loaded = false;
+    private volatile boolean innodbStatsReadable = true;
+    private final ConcurrentHashMap<String, CachedCount> queryCounts = new ConcurrentHashMap<>();
+
+    public PatientCountService(PatientRepository repo, ShardRouter router, RequestCoalescer coalescer,
+                               ReadinessService readiness,
+                               @Value("${patient.count.query-ttl-ms:30000}") long queryTtlMs,
+                               @Value("${patient.count.max-query-entries:10000}") int maxQueryEntries) {
+        this.repo = repo;
+        this.router = router;
+        this.coalescer = coalescer;
+        this.readiness = readiness;
+        this.queryTtlMs = queryTtlMs;
+        this.maxQueryEntries = maxQueryEntries;
+        readiness.registerWarmup(WARMUP);
+    }
+
+    /** Recount once the seed has loaded so the first pages after startup report seeded totals. */
+    @EventListener
+    public void onSeedCompleted(SeedCompletedEvent event) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${patient.count.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            long all = router.sum(shard -> repo.count());
+            long act = router.sum(shard -> repo.countByActiveTrue());
+            total.set(all);
+            active.set(act);
+            loaded = true;
+            if (readiness.seed().isSettled()) readiness.markWarm(WARMUP);
+            log.debug("Refreshed cached patient counts: total={}, active={}", all, act);
+        } catch (Exception e) {
+            log.warn("Failed to refresh cached patient counts: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() { return loaded; }
+
+    public Count tableCount(boolean activeOnly, CountStrategy strategy) {
+        if (strategy == CountStrategy.ESTIMATED) {
+            Long rows = tableRowsEstimate();
+            if (rows != null) {
+                if (!activeOnly) return new Count(rows, CountStrategy.ESTIMATED);
+                // scale by the cached active ratio — statistics have no per-column breakdown
+                long all = total.get();
+                long est = loaded && all > 0 ? Math.round((double) rows * active.get() / all) : rows;
+                return new Count(est, CountStrategy.ESTIMATED);
+            }
+        }
+        if (!loaded) refresh();
+        return new Count(activeOnly ? active.get() : total.get(), CountStrategy.CACHED);
+    }
+
+    public Count queryCount(String key, LongSupplier exact) {
+        long now = System.currentTimeMillis();
+        CachedCount c = queryCounts.get(key);
+        if (c != null && c.expiresAt() > now) return new Count(c.value(), CountStrategy.CACHED);
+
+        long value = coalescer.execute("count|" + key, exact::getAsLong);
+        if (queryCounts.size() >= maxQueryEntries) queryCounts.clear();
+        queryCounts.put(key, new CachedCount(value, now + queryTtlMs));
+        return new Count(value, CountStrategy.CACHED);
+    }
+
+    // --- write adjustments (called by PatientService) ---
+
+    public void onCreated(boolean isActive) {
+        total.incrementAndGet();
+        if (isActive) active.incrementAndGet();
+    }
+
+    public void onActiveChanged(boolean wasActive, boolean isActive) {
+        if (wasActive == isActive) return;
+        if (isActive) active.incrementAndGet();
+        else active.decrementAndGet();
+    }
+
+    private Long tableRowsEstimate() {
+        try {
+            long rows = 0;
+            for (int shard = 0; shard < router.shardCount(); shard++) {
+                Long r = shardRowsEstimate(router.jdbc(shard));
+                if (r == null) return null;
+                rows += r;
+            }
+            return rows;
+        } catch (Exception e) {
+            log.debug("Table statistics unavailable, falling back to cached count: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * InnoDB's persistent statistics (recalculated after ~10% of the rows change). information_schema.TABLES is
+     * not read directly: MySQL 8 caches its TABLE_ROWS for information_schema_stats_expiry (a day by default).
+     * Without SELECT on the mysql schema it is the fallback, with that cache turned off for the connection.
+     */
+    private Long shardRowsEstimate(JdbcTemplate jdbc) {
+        if (innodbStatsReadable) {
+            try {
+                return jdbc.queryForObject(INNODB_ROWS, Long.class);
+            } catch (DataAccessException e) {
+                innodbStatsReadable = false;
+                log.debug("mysql.innodb_table_stats not readable, using information_schema: {}", e.getMessage());
+            }
+        }
+        return jdbc.execute((ConnectionCallback<Long>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("SET SESSION information_schema_stats_expiry = 0");
+                try (ResultSet rs = st.executeQuery(SCHEMA_ROWS)) {
+                    return rs.next() ? rs.getObject(1, Long.class) : null;
+                }
+            }
+        });
+    }
+}
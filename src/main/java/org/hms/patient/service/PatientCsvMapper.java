@@ -0,0 +1,152 @@
+package org.hms.patient.service;
+
+import org.hms.patient.model.Patient;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Maps CSV records to Patients.
+ * - With a header row, columns are located by name (patient_id/id, name, email, phone, dob, created_at, active)
+ * - Without one, the seed layout is assumed: [patient_id,]name,email,phone,dob[,created_at]
+ *   (a numeric first column is taken as the id)
+ * Invalid records raise IllegalArgumentException with a reason suitable for an import report.
+ */
+public class PatientCsvMapper {
+    private static final DateTimeFormatter SQL_DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final Map<String, Integer> columns;
+
+    private PatientCsvMapper(Map<String, Integer> columns) {
+        this.columns = columns;
+    }
+
+    public static boolean isHeader(List<String> record) {
+        boolean name = false, email = false;
+        for (String f : record) {
+            String k = normalize(f);
+            if (k.equals("name")) name = true;
+            if (k.equals("email")) email = true;
+        }
+        return name && email;
+    }
+
+    public static PatientCsvMapper fromHeader(List<String> header) {
+        Map<String, Integer> cols = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String k = normalize(header.get(i));
+            switch (k) {
+                case "patientid", "id" -> cols.putIfAbsent("id", i);
+                case "dob", "dateofbirth" -> cols.putIfAbsent("dob", i);
+                case "createdat", "registeredat" -> cols.putIfAbsent("createdAt", i);
+                case "name", "email", "phone", "active" -> cols.putIfAbsent(k, i);
+                default -> { /* unknown columns are ignored */ }
+            }
+        }
+        return new PatientCsvMapper(cols);
+    }
+
+    public static PatientCsvMapper positional() {
+        return new PatientCsvMapper(null);
+    }
+
+    /**
+     * @param keepIds honour a patient_id column (seed data); otherwise PatientBatchWriter assigns ids
+     */
+    public Patient map(List<String> record, boolean keepIds) {
+        Map<String, Integer> cols = columns != null ? columns : positionalColumns(record);
+
+        Patient p = new Patient();
+        String id = field(record, cols, "id");
+        if (keepIds && !id.isEmpty()) {
+            try {
+                p.setPatientId(Long.parseLong(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("invalid patient_id '" + id + "'");
+            }
+        }
+
+        String name = field(record, cols, "name");
+        String email = field(record, cols, "email");
+        String phone = field(record, cols, "phone");
+        if (name.isEmpty()) throw new IllegalArgumentException("name is required");
+        if (email.isEmpty() || email.indexOf('@') < 1) throw new IllegalArgumentException("invalid email '" + email + "'");
+        if (phone.isEmpty() || !phone.matches("\\+?[0-9][0-9\\- ()]{3,}")) {
+            throw new IllegalArgumentException("invalid phone '" + phone + "'");
+        }
+        if (name.length() > 255 || email.length() > 255 || phone.length() > 255) {
+            throw new IllegalArgumentException("field longer than 255 characters");
+        }
+        p.setName(name);
+        p.setEmail(email);
+        p.setPhone(phone);
+
+        String dob = field(record, cols, "dob");
+        if (!dob.isEmpty()) {
+            try {
+                p.setDob(LocalDate.parse(dob));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("invalid dob '" + dob + "'");
+            }
+        }
+
+        String createdAt = field(record, cols, "createdAt");
+        p.setCreatedAt(createdAt.isEmpty() ? OffsetDateTime.now() : parseDateTime(createdAt));
+
+        String active = field(record, cols, "active").toLowerCase(Locale.ROOT);
+        p.setActive(active.isEmpty() || active.equals("true") || active.equals("1") || active.equals("yes"));
+        return p;
+    }
+
+    private static Map<String, Integer> positionalColumns(List<String> record) {
+        boolean firstIsId = !record.isEmpty() && record.get(0).trim().matches("\\d+");
+        int o = firstIsId ? 1 : 0;
+        if (record.size() < 4 + o) {
+            throw new IllegalArgumentException("expected at least " + (4 + o) + " columns, got " + record.size());
+        }
+        Map<String, Integer> cols = new HashMap<>();
+        if (firstIsId) cols.put("id", 0);
+        cols.put("name", o);
+        cols.put("email", o + 1);
+        cols.put("phone", o + 2);
+        cols.put("dob", o + 3);
+        cols.put("createdAt", o + 4);
+        return cols;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> cols, String key) {
+        Integer i = cols.get(key);
+        if (i == null || i >= record.size()) return "";
+        return record.get(i).trim();
+    }
+
+    private static OffsetDateTime parseDateTime(String s) {
+        try {
+            return OffsetDateTime.parse(s);
+        } catch (DateTimeParseException ignored) {
+            // fall through to zone-less formats, read as UTC
+        }
+        try {
+            return LocalDateTime.parse(s, SQL_DATETIME).atOffset(ZoneOffset.UTC);
+        } catch (DateTimeParseException ignored) {
+            // fall through
+        }
+        try {
+            return LocalDateTime.parse(s).atOffset(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid created_at '" + s + "'");
+        }
+    }
+
+    private static String normalize(String header) {
+        return header.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
@@ -0,0 +1,338 @@
+package org.hms.patient.service;
+
+import jakarta.annotation.PreDestroy;
+import org.hms.patient.config.SeedCompletedEvent;
+import org.hms.patient.dto.DuplicateCandidate;
+import org.hms.patient.model.Patient;
+import org.hms.patient.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory blocking index for duplicate-patient candidates.
+ * - Every patient is filed under a few bucket keys: phonetic name key + dob, phonetic name key alone,
+ *   and normalized phone
+ * - A lookup reads only the buckets its own keys point to and scores those candidates with Jaro-Winkler
+ *   on the normalized name plus dob/phone agreement, so cost depends on bucket size, not table size
+ * - Only what scoring needs is kept, in primitive arrays (normalized name bytes, dob as epoch day, packed
+ *   phone and name keys): about 175 bytes of heap per patient. Display fields of the hits are read from their shards
+ * - Built from the database once the seed has settled (a readiness warm-up, retried with backoff), then kept
+ *   current by PatientService writes and bulk imports. Build rows never replace an entry a write already put
+ */
+@Service
+public class PatientDuplicateIndex {
+    private static final Logger log = LoggerFactory.getLogger(PatientDuplicateIndex.class);
+    private static final String WARMUP = "duplicate-index";
+    private static final double NAME_WEIGHT = 0.6, DOB_WEIGHT = 0.2, PHONE_WEIGHT = 0.2;
+    private static final double NAME_MATCH = 0.85;
+    private static final int NO_DOB = Integer.MIN_VALUE;
+    private static final long NAME = 1L << 60, NAME_DOB = 2L << 60, PHONE = 3L << 60;
+    private static final long MAX_BUILD_RETRY_MS = 60_000;
+
+    /** What one patient contributes to the index; ids of the hits are resolved to rows only at the end. */
+    private record Facts(String normalizedName, int nameKey, int dob, long phoneKey) {
+
+        static Facts of(String name, LocalDate dob, String phone) {
+            String normalized = NameMatching.normalize(name);
+            return new Facts(normalized, NameMatching.phoneticKey(normalized),
+                    dob != null ? (int) dob.toEpochDay() : NO_DOB, NameMatching.phoneKey(phone));
+        }
+
+        long[] keys() {
+            long[] keys = new long[3];
+            int n = 0;
+            if (nameKey != 0) {
+                keys[n++] = NAME | nameKey;
+                if (dob != NO_DOB) keys[n++] = nameDobKey(nameKey, dob);
+            }
+            if (phoneKey >= 0) keys[n++] = PHONE | phoneKey;
+            return Arrays.copyOf(keys, n);
+        }
+    }
+
+    private record Row(long id, Facts facts) {}
+
+    private record Scored(long id, double score, List<String> matchedOn) {}
+
+    private final ShardRouter router;
+    private final ReadinessService readiness;
+    private final double minScore;
+    private final int maxBucketScan;
+    private final int buildBatchSize;
+
+    // slot-per-patient columns, guarded by lock; a patient keeps its slot for the life of the index
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntMultimap slotOf = new LongIntMultimap(1 << 16);
+    private final LongIntMultimap buckets = new LongIntMultimap(1 << 16);
+    private long[] ids = new long[1 << 16];
+    private byte[][] names = new byte[1 << 16][];
+    private int[] nameKeys = new int[1 << 16];
+    private int[] dobs = new int[1 << 16];
+    private long[] phoneKeys = new long[1 << 16];
+    private int count;
+
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "duplicate-index");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PatientDuplicateIndex(ShardRouter router, ReadinessService readiness,
+                                 @Value("${patient.duplicates.min-score:0.75}") double minScore,
+                                 @Value("${patient.duplicates.max-bucket-scan:5000}") int maxBucketScan,
+                                 @Value("${patient.duplicates.build-batch-size:10000}") int buildBatchSize) {
+        this.router = router;
+        this.readiness = readiness;
+        this.minScore = minScore;
+        this.maxBucketScan = maxBucketScan;
+        this.buildBatchSize = buildBatchSize;
+        readiness.registerWarmup(WARMUP);
+    }
+
+    @EventListener
+    public void onSeedCompleted(SeedCompletedEvent event) {
+        builder.execute(() -> build(1));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    /**
+     * Loads every stored patient, shards in parallel, walking the primary key in batches.
+     * A failed attempt is retried after 1s, 2s, 4s ... (at most a minute); rows already loaded are skipped.
+     */
+    void build(int attempt) {
+        long started = System.nanoTime();
+        try {
+            long loaded = router.sum(this::loadShard);
+            log.info("Duplicate index built: {} patients ({} indexed), {} buckets in {} ms",
+                    loaded, size(), bucketCount(), (System.nanoTime() - started) / 1_000_000);
+            readiness.markWarm(WARMUP);
+        } catch (Exception e) {
+            long delayMs = Math.min(MAX_BUILD_RETRY_MS, 1000L << Math.min(attempt - 1, 16));
+            log.error("Failed to build duplicate index (attempt {}), retrying in {} ms", attempt, delayMs, e);
+            builder.schedule(() -> build(attempt + 1), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long loadShard(int shard) {
+        long loaded = 0, after = 0;
+        while (true) {
+            List<Row> batch = router.jdbc(shard).query(
+                    "SELECT patient_id, name, dob, phone FROM patients WHERE patient_id > ? ORDER BY patient_id LIMIT ?",
+                    (rs, i) -> {
+                        Date dob = rs.getDate(3);
+                        return new Row(rs.getLong(1),
+                                Facts.of(rs.getString(2), dob != null ? dob.toLocalDate() : null, rs.getString(4)));
+                    },
+                    after, buildBatchSize);
+            lock.writeLock().lock();
+            try {
+                // a write that reached the index first is at least as new as this row: keep it
+                for (Row row : batch) {
+                    if (slotOf.first(row.id()) < 0) store(row.id(), row.facts());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            loaded += batch.size();
+            if (batch.size() < buildBatchSize) return loaded;
+            after = batch.get(batch.size() - 1).id();
+        }
+    }
+
+    public void put(Patient p) {
+        if (p.getPatientId() == null) return;
+        Facts facts = Facts.of(p.getName(), p.getDob(), p.getPhone());
+        lock.writeLock().lock();
+        try {
+            store(p.getPatientId(), facts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putAll(Collection<Patient> patients) {
+        patients.forEach(this::put);
+    }
+
+    /** Caller holds the write lock. */
+    private void store(long id, Facts f) {
+        int slot = slotOf.first(id);
+        if (slot >= 0) {
+            Facts old = facts(slot);
+            long[] keys = f.keys();
+            for (long k : old.keys()) {
+                if (!contains(keys, k)) buckets.remove(k, slot);
+            }
+        } else {
+            slot = count++;
+            if (slot == ids.length) grow();
+            ids[slot] = id;
+            slotOf.put(id, slot);
+        }
+        names[slot] = f.normalizedName().getBytes(StandardCharsets.ISO_8859_1);
+        nameKeys[slot] = f.nameKey();
+        dobs[slot] = f.dob();
+        phoneKeys[slot] = f.phoneKey();
+        for (long k : f.keys()) buckets.put(k, slot);
+    }
+
+    private Facts facts(int slot) {
+        return new Facts(new String(names[slot], StandardCharsets.ISO_8859_1), nameKeys[slot], dobs[slot], phoneKeys[slot]);
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        nameKeys = Arrays.copyOf(nameKeys, capacity);
+        dobs = Arrays.copyOf(dobs, capacity);
+        phoneKeys = Arrays.copyOf(phoneKeys, capacity);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int bucketCount() {
+        lock.readLock().lock();
+        try {
+            return buckets.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the best-scoring stored patients, best first, from memory only (e.g. for the create response header).
+     * @param excludeId a patient to leave out, e.g. the one just created; may be null
+     */
+    public List<Long> findIds(String name, LocalDate dob, String phone, int limit, Long excludeId) {
+        return score(name, dob, phone, limit, excludeId).stream().map(Scored::id).toList();
+    }
+
+    /**
+     * Best-scoring stored patients for the given details (name and/or phone required, dob narrows the name block).
+     * Scoring runs in memory; the hits' current rows are then read from their shards.
+     * @param excludeId a patient to leave out, e.g. the one just created; may be null
+     */
+    public List<DuplicateCandidate> find(String name, LocalDate dob, String phone, int limit, Long excludeId) {
+        List<Scored> hits = score(name, dob, phone, limit, excludeId);
+        if (hits.isEmpty()) return List.of();
+        Map<Long, DuplicateCandidate> rows = load(hits);
+        List<DuplicateCandidate> found = new ArrayList<>(hits.size());
+        for (Scored hit : hits) {
+            DuplicateCandidate row = rows.get(hit.id());
+            if (row == null) continue;
+            found.add(new DuplicateCandidate(hit.id(), row.getName(), row.getDob(), row.getPhone(), row.isActive(),
+                    hit.score(), hit.matchedOn()));
+        }
+        return found;
+    }
+
+    private List<Scored> score(String name, LocalDate dob, String phone, int limit, Long excludeId) {
+        Facts probe = Facts.of(name, dob, phone);
+        List<Long> keys = new ArrayList<>(2);
+        if (probe.nameKey() != 0) keys.add(dob != null ? nameDobKey(probe.nameKey(), probe.dob()) : NAME | probe.nameKey());
+        if (probe.phoneKey() >= 0) keys.add(PHONE | probe.phoneKey());
+
+        List<Scored> scored = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<Integer> seen = new HashSet<>();
+            for (long key : keys) {
+                int[] scanned = {0};
+                buckets.forEach(key, slot -> {
+                    if (scanned[0]++ >= maxBucketScan) return false;
+                    if ((excludeId != null && ids[slot] == excludeId) || !seen.add(slot)) return true;
+                    Scored s = score(probe, slot);
+                    if (s.score() >= minScore) scored.add(s);
+                    return true;
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        scored.sort(Comparator.comparingDouble(Scored::score).reversed().thenComparingLong(Scored::id));
+        return scored.size() > limit ? new ArrayList<>(scored.subList(0, limit)) : scored;
+    }
+
+    /** Caller holds the read lock. */
+    private Scored score(Facts probe, int slot) {
+        double weight = 0, total = 0;
+        List<String> matchedOn = new ArrayList<>(3);
+        if (!probe.normalizedName().isEmpty()) {
+            double sim = NameMatching.jaroWinkler(probe.normalizedName(),
+                    new String(names[slot], StandardCharsets.ISO_8859_1));
+            weight += NAME_WEIGHT;
+            total += NAME_WEIGHT * sim;
+            if (sim >= NAME_MATCH) matchedOn.add("name");
+        }
+        if (probe.dob() != NO_DOB) {
+            weight += DOB_WEIGHT;
+            if (probe.dob() == dobs[slot]) {
+                total += DOB_WEIGHT;
+                matchedOn.add("dob");
+            }
+        }
+        if (probe.phoneKey() >= 0) {
+            weight += PHONE_WEIGHT;
+            if (probe.phoneKey() == phoneKeys[slot]) {
+                total += PHONE_WEIGHT;
+                matchedOn.add("phone");
+            }
+        }
+        double score = weight > 0 ? Math.round(1000 * total / weight) / 1000.0 : 0;
+        return new Scored(ids[slot], score, matchedOn);
+    }
+
+    /** Current name, dob, phone and status of the hits, one IN query per shard that holds any of them. */
+    private Map<Long, DuplicateCandidate> load(List<Scored> hits) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Scored hit : hits) byShard.computeIfAbsent(router.shardFor(hit.id()), s -> new ArrayList<>()).add(hit.id());
+        Map<Long, DuplicateCandidate> rows = new HashMap<>();
+        byShard.forEach((shard, shardIds) -> new NamedParameterJdbcTemplate(router.jdbc(shard)).query(
+                "SELECT patient_id, name, dob, phone, active FROM patients WHERE patient_id IN (:ids)",
+                new MapSqlParameterSource("ids", shardIds),
+                rs -> {
+                    Date dob = rs.getDate(3);
+                    rows.put(rs.getLong(1), new DuplicateCandidate(rs.getLong(1), rs.getString(2),
+                            dob != null ? dob.toLocalDate() : null, rs.getString(4), rs.getBoolean(5), 0, List.of()));
+                }));
+        return rows;
+    }
+
+    private static long nameDobKey(int nameKey, int dob) {
+        return NAME_DOB | (long) nameKey << 32 | (dob & 0xFFFFFFFFL);
+    }
+
+    private static boolean contains(long[] keys, long key) {
+        for (long k : keys) {
+            if (k == key) return true;
+        }
+        return false;
+    }
+}
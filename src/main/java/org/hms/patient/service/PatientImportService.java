@@ -0,0 +1,280 @@
+package org.hms.patient.service;
+
+import jakarta.annotation.PreDestroy;
+import org.hms.patient.exception.BadRequestException;
+import org.hms.patient.model.Patient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk CSV import of patients.
+ * - Uploads are spooled to a temp file and processed by a background job; the request returns the job id at once
+ * - One reader streams and tokenizes the file (quoted CSV, so records can span lines) and cuts it into chunks
+ * - Chunks are mapped, validated, de-duplicated and batch-inserted in parallel on a worker pool,
+ *   with a bounded number of chunks in flight so memory stays flat for any file size
+ * - Every rejected row is counted; the first few are reported with line number and reason
+ */
+@Service
+public class PatientImportService {
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    private record Row(long line, List<String> values) {}
+
+    private final PatientBatchWriter writer;
+    private final PatientCountService counts;
+    private final PatientDuplicateIndex duplicates;
+    private final PatientStatsService stats;
+    private final int chunkSize;
+    private final int parallelism;
+    private final int maxJobs;
+    private final int maxRecordChars;
+
+    private final ExecutorService coordinator;
+    private final ExecutorService workers;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> jobOrder = new ConcurrentLinkedDeque<>();
+
+    public PatientImportService(PatientBatchWriter writer, PatientCountService counts,
+                                PatientDuplicateIndex duplicates, PatientStatsService stats,
+                                @Value("${patient.import.chunk-size:1000}") int chunkSize,
+                                @Value("${patient.import.parallelism:4}") int parallelism,
+                                @Value("${patient.import.max-jobs:100}") int maxJobs,
+                                @Value("${patient.import.max-record-chars:65536}") int maxRecordChars) {
+        this.writer = writer;
+        this.counts = counts;
+        this.duplicates = duplicates;
+        this.stats = stats;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.maxJobs = maxJobs;
+        this.maxRecordChars = maxRecordChars;
+        this.coordinator = Executors.newFixedThreadPool(2, daemon("import-reader"));
+        this.workers = Executors.newFixedThreadPool(parallelism, daemon("import-worker"));
+    }
+
+    /** Spools the upload and queues a background import job. */
+    public ImportJob submit(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) throw new BadRequestException("a non-empty CSV file is required");
+        Path tmp = Files.createTempFile("patient-import-", ".csv");
+        file.transferTo(tmp);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(), Files.size(tmp));
+        register(job);
+        coordinator.execute(() -> {
+            try (InputStream in = Files.newInputStream(tmp)) {
+                run(job, in, false);
+            } catch (IOException e) {
+                job.fail(e.getMessage());
+            } finally {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException e) {
+                    log.warn("Could not delete import spool file {}: {}", tmp, e.getMessage());
+                }
+            }
+        });
+        return job;
+    }
+
+    /** Runs an import on the calling thread (used by the startup seed). */
+    public ImportJob importNow(String name, InputStream in, long sizeBytes, boolean keepIds) {
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), name, sizeBytes);
+        register(job);
+        run(job, in, keepIds);
+        return job;
+    }
+
+    public Optional<ImportJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void run(ImportJob job, InputStream in, boolean keepIds) {
+        job.start();
+        log.info("Import {} started: {} ({} bytes)", job.getId(), job.getFileName(), job.getSizeBytes());
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<Future<?>> chunks = new ArrayList<>();
+        try (CsvRecordReader reader = new CsvRecordReader(
+                new InputStreamReader(new CountingInputStream(in, job), StandardCharsets.UTF_8), maxRecordChars)) {
+            List<String> first = reader.next();
+            if (first == null) {
+                job.complete();
+                return;
+            }
+            PatientCsvMapper mapper;
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            if (PatientCsvMapper.isHeader(first)) {
+                mapper = PatientCsvMapper.fromHeader(first);
+            } else {
+                mapper = PatientCsvMapper.positional();
+                chunk.add(new Row(reader.getRecordLine(), first));
+            }
+
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                chunk.add(new Row(reader.getRecordLine(), record));
+                if (chunk.size() >= chunkSize) {
+                    chunks.add(dispatch(job, mapper, chunk, keepIds, inFlight));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) chunks.add(dispatch(job, mapper, chunk, keepIds, inFlight));
+            for (Future<?> f : chunks) f.get();
+            job.complete();
+            log.info("Import {} completed: read {}, imported {}, rejected {} ({} rows/s)",
+                    job.getId(), job.getRowsRead(), job.getImported(), job.getRejected(), job.getRowsPerSecond());
+        } catch (Exception e) {
+            chunks.forEach(f -> f.cancel(true));
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Import {} failed after {} rows", job.getId(), job.getRowsRead(), cause);
+            job.fail(cause.getMessage());
+        } finally {
+            counts.refresh();
+            stats.refresh();
+        }
+    }
+
+    private Future<?> dispatch(ImportJob job, PatientCsvMapper mapper, List<Row> chunk, boolean keepIds,
+                               Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        return workers.submit(() -> {
+            try {
+                processChunk(job, mapper, chunk, keepIds);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void processChunk(ImportJob job, PatientCsvMapper mapper, List<Row> chunk, boolean keepIds) {
+        List<Patient> valid = new ArrayList<>(chunk.size());
+        List<Long> lines = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>(), phones = new HashSet<>();
+
+        for (Row row : chunk) {
+            Patient p;
+            try {
+                p = mapper.map(row.values(), keepIds);
+            } catch (IllegalArgumentException e) {
+                job.reject(row.line(), e.getMessage());
+                continue;
+            }
+            if (!emails.add(p.getEmail().toLowerCase(Locale.ROOT))) {
+                job.reject(row.line(), "duplicate email in file: " + p.getEmail());
+            } else if (!phones.add(p.getPhone())) {
+                job.reject(row.line(), "duplicate phone in file: " + p.getPhone());
+            } else {
+                valid.add(p);
+                lines.add(row.line());
+            }
+        }
+        job.addRowsRead(chunk.size());
+
+        // one indexed IN query per column instead of two exists() calls per row
+        Set<String> takenEmails = writer.existingEmails(emails);
+        Set<String> takenPhones = writer.existingPhones(phones);
+        List<Patient> toInsert = new ArrayList<>(valid.size());
+        List<Long> toInsertLines = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            Patient p = valid.get(i);
+            if (takenEmails.contains(p.getEmail().toLowerCase(Locale.ROOT))) {
+                job.reject(lines.get(i), "email already exists: " + p.getEmail());
+            } else if (takenPhones.contains(p.getPhone().toLowerCase(Locale.ROOT))) {
+                job.reject(lines.get(i), "phone already exists: " + p.getPhone());
+            } else {
+                toInsert.add(p);
+                toInsertLines.add(lines.get(i));
+            }
+        }
+
+        try {
+            writer.insert(toInsert);
+            job.addImported(toInsert.size());
+            duplicates.putAll(toInsert);
+        } catch (PatientBatchWriter.PartialInsertException e) {
+            // a concurrent chunk or writer took one of these keys: isolate the offending rows
+            // (only the shard groups that failed; the others are already committed)
+            Set<Patient> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+            failed.addAll(e.getFailed());
+            job.addImported(toInsert.size() - failed.size());
+            for (int i = 0; i < toInsert.size(); i++) {
+                if (!failed.contains(toInsert.get(i))) {
+                    duplicates.put(toInsert.get(i));
+                    continue;
+                }
+                try {
+                    writer.insert(List.of(toInsert.get(i)));
+                    job.addImported(1);
+                    duplicates.put(toInsert.get(i));
+                } catch (DataIntegrityViolationException rowError) {
+                    job.reject(toInsertLines.get(i), "duplicate email, phone or id");
+                }
+            }
+        }
+    }
+
+    private void register(ImportJob job) {
+        jobs.put(job.getId(), job);
+        jobOrder.addLast(job.getId());
+        // forget the oldest finished jobs beyond max-jobs
+        Iterator<String> it = jobOrder.iterator();
+        while (jobs.size() > maxJobs && it.hasNext()) {
+            String id = it.next();
+            ImportJob old = jobs.get(id);
+            if (old == null || old.isFinished()) {
+                jobs.remove(id);
+                it.remove();
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /** Feeds bytes consumed by the parser into the job's progress. */
+    private static class CountingInputStream extends FilterInputStream {
+        private final ImportJob job;
+
+        CountingInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) job.addBytesRead(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) job.addBytesRead(n);
+            return n;
+        }
+    }
+}
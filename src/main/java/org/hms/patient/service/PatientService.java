@@ -1,46 +1,190 @@
 package org.hms.patient.service;
 
+import org.hms.patient.dto.CountStrategy;
+import org.hms.patient.dto.DuplicateCandidate;
+import org.hms.patient.dto.PaginationResponse;
+import org.hms.patient.dto.PatientStats;
 import org.hms.patient.model.Patient;
 import org.hms.patient.repository.PatientRepository;
+import org.hms.patient.shard.PatientIdGenerator;
+import org.hms.patient.shard.ShardRouter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 @Service
 public class PatientService {
+    // matches the (active, created_at, patient_id) / (created_at, patient_id) indexes so MySQL can walk them backwards
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("patientId"));
+    // the same order in memory, for merging per-shard results
+    private static final Comparator<Patient> NEWEST_FIRST_ORDER =
+            Comparator.comparing(Patient::getCreatedAt).thenComparing(Patient::getPatientId).reversed();
+    // coalescing key prefixes of list and search reads (see list/search below); any write can change their results
+    private static final String[] LIST_KEYS = {"list|", "name|", "phone|"};
+
     @Autowired
     private PatientRepository repo;
+    @Autowired
+    private RequestCoalescer coalescer;
+    @Autowired
+    private PatientCountService counts;
+    @Autowired
+    private ShardRouter router;
+    @Autowired
+    private PatientIdGenerator ids;
+    @Autowired
+    private PatientDuplicateIndex duplicates;
+    @Autowired
+    private PatientStatsService stats;
+
+    @Value("${patient.count.default-strategy:cached}")
+    private String defaultCountStrategy;
 
-    public Patient create(Patient p) { return repo.save(p); }
+    public Patient create(Patient p) {
+        checkUniqueAcrossShards(null, p.getEmail(), p.getPhone());
+        long id = ids.next();
+        p.setPatientId(id);
+        Patient saved = router.on(router.shardFor(id), () -> repo.save(p));
+        counts.onCreated(saved.isActive());
+        stats.onCreated(saved);
+        duplicates.put(saved);
+        detachReads(id);
+        return saved;
+    }
 
-    public Page<Patient> list(int page, int size) {
-        return repo.findAll(PageRequest.of(page, size, Sort.by("createdAt").descending()));
+    public PaginationResponse<Patient> list(int page, int size, boolean activeOnly, CountStrategy strategy) {
+        PageRequest pr = PageRequest.of(page, size, NEWEST_FIRST);
+        String key = "list|" + activeOnly + "|" + page + "|" + size;
+        strategy = resolve(strategy);
+        if (strategy == CountStrategy.EXACT) {
+            return PaginationResponse.of(coalescer.execute(key, () -> router.scatterPage(pr, NEWEST_FIRST_ORDER,
+                    q -> activeOnly ? repo.findByActiveTrue(q) : repo.findAll(q))));
+        }
+        Slice<Patient> s = coalescer.execute(key + "|slice", () -> router.scatterSlice(pr, NEWEST_FIRST_ORDER,
+                q -> activeOnly ? repo.readByActiveTrue(q) : repo.readAllBy(q)));
+        PatientCountService.Count total = counts.tableCount(activeOnly, strategy);
+        return PaginationResponse.of(s, total.value(), total.strategy());
     }
 
-    public Optional<Patient> get(Long id) { return repo.findById(id); }
+    public Optional<Patient> get(Long id) {
+        return coalescer.execute("get|" + id, () -> router.on(router.shardFor(id), () -> repo.findById(id)));
+    }
 
     public Patient update(Long id, Patient updated) {
-        return repo.findById(id).map(existing -> {
+        return router.on(router.shardFor(id), () -> repo.findById(id).map(existing -> {
+            checkUniqueAcrossShards(id, updated.getEmail(), updated.getPhone());
+            boolean wasActive = existing.isActive();
+            PatientStatsService.Facts before = PatientStatsService.Facts.of(existing);
             existing.setName(updated.getName());
             existing.setEmail(updated.getEmail());
             existing.setPhone(updated.getPhone());
             existing.setDob(updated.getDob());
             existing.setActive(updated.isActive());
-            return repo.save(existing);
-        }).orElseThrow(() -> new RuntimeException("PATIENT_NOT_FOUND"));
+            Patient saved = repo.save(existing);
+            counts.onActiveChanged(wasActive, saved.isActive());
+            stats.onChanged(before, PatientStatsService.Facts.of(saved));
+            duplicates.put(saved);
+            detachReads(id);
+            return saved;
+        }).orElseThrow(() -> new RuntimeException("PATIENT_NOT_FOUND")));
     }
 
     public void delete(Long id) {
-        repo.findById(id).ifPresent(p -> { p.setActive(false); repo.save(p); });
+        router.run(router.shardFor(id), () -> repo.findById(id).ifPresent(p -> {
+            boolean wasActive = p.isActive();
+            p.setActive(false);
+            repo.save(p);
+            // status totals live in PatientCountService; the stats aggregates do not change on a soft delete
+            counts.onActiveChanged(wasActive, false);
+            duplicates.put(p);
+            detachReads(id);
+        }));
+    }
+
+    /** Aggregate counts from memory (see PatientStatsService). */
+    public PatientStats stats() {
+        return stats.snapshot();
+    }
+
+    /** Likely duplicates of the given details, scored by the in-memory index; only the hits are read from the database. */
+    public List<DuplicateCandidate> findDuplicates(String name, LocalDate dob, String phone, int limit, Long excludeId) {
+        return duplicates.find(name, dob, phone, limit, excludeId);
+    }
+
+    /** Ids of likely duplicates, best first, without any database access. */
+    public List<Long> findDuplicateIds(String name, LocalDate dob, String phone, int limit, Long excludeId) {
+        return duplicates.findIds(name, dob, phone, limit, excludeId);
+    }
+
+    public PaginationResponse<Patient> searchByName(String name, int page, int size, boolean activeOnly,
+                                                    CountStrategy strategy) {
+        PageRequest pr = PageRequest.of(page, size, NEWEST_FIRST);
+        return search("name|" + activeOnly + "|" + name, pr, resolve(strategy),
+                q -> activeOnly ? repo.findByActiveTrueAndNameContainingIgnoreCase(name, q)
+                                : repo.findByNameContainingIgnoreCase(name, q),
+                q -> activeOnly ? repo.readByActiveTrueAndNameContainingIgnoreCase(name, q)
+                                : repo.readByNameContainingIgnoreCase(name, q),
+                () -> activeOnly ? repo.countByActiveTrueAndNameContainingIgnoreCase(name)
+                                 : repo.countByNameContainingIgnoreCase(name));
+    }
+
+    public PaginationResponse<Patient> searchByPhone(String phone, int page, int size, boolean activeOnly,
+                                                     CountStrategy strategy) {
+        PageRequest pr = PageRequest.of(page, size, NEWEST_FIRST);
+        return search("phone|" + activeOnly + "|" + phone, pr, resolve(strategy),
+                q -> activeOnly ? repo.findByActiveTrueAndPhoneContaining(phone, q)
+                                : repo.findByPhoneContaining(phone, q),
+                q -> activeOnly ? repo.readByActiveTrueAndPhoneContaining(phone, q)
+                                : repo.readByPhoneContaining(phone, q),
+                () -> activeOnly ? repo.countByActiveTrueAndPhoneContaining(phone)
+                                 : repo.countByPhoneContaining(phone));
+    }
+
+    private PaginationResponse<Patient> search(String queryKey, PageRequest pr, CountStrategy strategy,
+                                               Function<Pageable, Page<Patient>> exact,
+                                               Function<Pageable, Slice<Patient>> slice,
+                                               LongSupplier count) {
+        String key = queryKey + "|" + pr.getPageNumber() + "|" + pr.getPageSize();
+        if (strategy == CountStrategy.EXACT) {
+            return PaginationResponse.of(coalescer.execute(key, () -> router.scatterPage(pr, NEWEST_FIRST_ORDER, exact)));
+        }
+        Slice<Patient> s = coalescer.execute(key + "|slice", () -> router.scatterSlice(pr, NEWEST_FIRST_ORDER, slice));
+        // table statistics say nothing about an arbitrary filter, so ESTIMATED is served from the query cache too
+        PatientCountService.Count total = counts.queryCount(queryKey, () -> router.sum(shard -> count.getAsLong()));
+        return PaginationResponse.of(s, total.value(), total.strategy());
+    }
+
+    /**
+     * Unique keys on email/phone only hold within one shard, so with several shards the others are checked first.
+     * This narrows but does not close the race between two concurrent writers on different shards.
+     */
+    private void checkUniqueAcrossShards(Long selfId, String email, String phone) {
+        if (router.shardCount() == 1) return;
+        boolean taken = router.onAll(shard -> repo.existsByEmailAndPatientIdNot(email, selfId == null ? -1L : selfId)
+                || repo.existsByPhoneAndPatientIdNot(phone, selfId == null ? -1L : selfId))
+                .contains(true);
+        if (taken) throw new DataIntegrityViolationException("email or phone already registered");
     }
 
-    public Page<Patient> searchByName(String name, int page, int size) {
-        return repo.findByNameContainingIgnoreCase(name, PageRequest.of(page, size));
+    /** Later reads of this patient, and of any list or search page, start fresh instead of joining an older read. */
+    private void detachReads(long id) {
+        coalescer.forget("get|" + id);
+        coalescer.forgetPrefixed(LIST_KEYS);
     }
 
-    public Page<Patient> searchByPhone(String phone, int page, int size) {
-        return repo.findByPhoneContaining(phone, PageRequest.of(page, size));
+    private CountStrategy resolve(CountStrategy requested) {
+        if (requested != null) return requested;
+        CountStrategy def = CountStrategy.from(defaultCountStrategy);
+        return def != null ? def : CountStrategy.EXACT;
     }
 }
@@ -0,0 +1,197 @@
+package org.hms.patient.service;
+
+import jakarta.annotation.PreDestroy;
+import org.hms.patient.config.SeedCompletedEvent;
+import org.hms.patient.dto.CountStrategy;
+import org.hms.patient.dto.PatientStats;
+import org.hms.patient.model.Patient;
+import org.hms.patient.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Patient statistics for dashboards (GET /v1/patients/stats) without scanning the table per request.
+ * - Aggregates are counts by date of birth and by registration month (UTC); totals by status are
+ *   PatientCountService's cached table counts, so the two endpoints cannot disagree
+ * - Age bands are derived on read from the dob counts, so they roll over with the calendar
+ *   (cost grows with the number of distinct birth dates, not with the number of patients)
+ * - PatientService writes adjust the aggregates as they happen; a scheduled GROUP BY pass over every shard
+ *   (and one after each bulk import) replaces them, correcting any drift
+ * - Until the first pass after the seed succeeds (the readiness warm-up), a failed pass is retried after
+ *   1s, 2s, 4s ... (at most a minute) instead of waiting for the next scheduled one
+ */
+@Service
+public class PatientStatsService {
+    private static final Logger log = LoggerFactory.getLogger(PatientStatsService.class);
+    private static final String WARMUP = "patient-stats";
+    // lower bounds in years, ascending; each band runs to the next bound
+    private static final int[] AGE_BANDS = {0, 18, 30, 45, 60, 75};
+    private static final long MAX_RETRY_MS = 60_000;
+
+    /** The parts of a patient the aggregates count, taken before and after a write. */
+    public record Facts(LocalDate dob, YearMonth registered) {
+        public static Facts of(Patient p) {
+            YearMonth month = p.getCreatedAt() != null
+                    ? YearMonth.from(p.getCreatedAt().withOffsetSameInstant(ZoneOffset.UTC)) : null;
+            return new Facts(p.getDob(), month);
+        }
+    }
+
+    private static class Aggregates {
+        final LongAdder noDob = new LongAdder();
+        final Map<LocalDate, LongAdder> byDob = new ConcurrentHashMap<>();
+        final Map<YearMonth, LongAdder> byMonth = new ConcurrentHashMap<>();
+        final OffsetDateTime reconciledAt;
+
+        Aggregates(OffsetDateTime reconciledAt) { this.reconciledAt = reconciledAt; }
+
+        void apply(Facts f, int delta) {
+            if (f.dob() == null) noDob.add(delta);
+            else byDob.computeIfAbsent(f.dob(), d -> new LongAdder()).add(delta);
+            if (f.registered() != null) byMonth.computeIfAbsent(f.registered(), m -> new LongAdder()).add(delta);
+        }
+    }
+
+    private final ShardRouter router;
+    private final PatientCountService counts;
+    private final ReadinessService readiness;
+    private volatile Aggregates current = new Aggregates(null);
+    private volatile boolean warm;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean retryPending = new AtomicBoolean();
+    private final ScheduledExecutorService retries = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "patient-stats-retry");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PatientStatsService(ShardRouter router, PatientCountService counts, ReadinessService readiness) {
+        this.router = router;
+        this.counts = counts;
+        this.readiness = readiness;
+        readiness.registerWarmup(WARMUP);
+    }
+
+    @EventListener
+    public void onSeedCompleted(SeedCompletedEvent event) {
+        refresh();
+    }
+
+    /**
+     * Recomputes the aggregates from the database and swaps them in. Writes that land while the queries run
+     * may be counted twice or not at all until the next pass.
+     */
+    @Scheduled(fixedDelayString = "${patient.stats.refresh-ms:300000}")
+    public void refresh() {
+        long started = System.nanoTime();
+        try {
+            Aggregates fresh = new Aggregates(OffsetDateTime.now(ZoneOffset.UTC));
+            router.runAll(shard -> {
+                var jdbc = router.jdbc(shard);
+                jdbc.query("SELECT dob, COUNT(*) FROM patients GROUP BY dob", rs -> {
+                    Date dob = rs.getDate(1);
+                    if (dob == null) fresh.noDob.add(rs.getLong(2));
+                    else fresh.byDob.computeIfAbsent(dob.toLocalDate(), d -> new LongAdder()).add(rs.getLong(2));
+                });
+                jdbc.query("SELECT YEAR(created_at), MONTH(created_at), COUNT(*) FROM patients"
+                                + " GROUP BY YEAR(created_at), MONTH(created_at)",
+                        rs -> {
+                            fresh.byMonth.computeIfAbsent(YearMonth.of(rs.getInt(1), rs.getInt(2)), m -> new LongAdder())
+                                    .add(rs.getLong(3));
+                        });
+            });
+            current = fresh;
+            failures.set(0);
+            if (readiness.seed().isSettled()) {
+                readiness.markWarm(WARMUP);
+                warm = true;
+            }
+            log.debug("Reconciled patient stats in {} ms", (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            if (warm) {
+                log.warn("Failed to reconcile patient stats: {}", e.getMessage());
+                return;
+            }
+            int attempt = failures.incrementAndGet();
+            long delayMs = Math.min(MAX_RETRY_MS, 1000L << Math.min(attempt - 1, 16));
+            log.warn("Failed to reconcile patient stats (attempt {}), retrying in {} ms", attempt, delayMs, e);
+            if (retryPending.compareAndSet(false, true)) {
+                retries.schedule(() -> {
+                    retryPending.set(false);
+                    refresh();
+                }, delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retries.shutdownNow();
+    }
+
+    // --- write adjustments (called by PatientService) ---
+
+    public void onCreated(Patient p) {
+        current.apply(Facts.of(p), 1);
+    }
+
+    public void onChanged(Facts before, Facts after) {
+        if (before.equals(after)) return;
+        Aggregates a = current;
+        a.apply(before, -1);
+        a.apply(after, 1);
+    }
+
+    public PatientStats snapshot() {
+        Aggregates a = current;
+        long total = counts.tableCount(false, CountStrategy.CACHED).value();
+        long active = counts.tableCount(true, CountStrategy.CACHED).value();
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        byStatus.put("active", active);
+        byStatus.put("inactive", total - active);
+
+        long[] bands = new long[AGE_BANDS.length];
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        a.byDob.forEach((dob, n) -> {
+            int age = Math.max(0, Period.between(dob, today).getYears());
+            int band = AGE_BANDS.length - 1;
+            while (band > 0 && age < AGE_BANDS[band]) band--;
+            bands[band] += n.sum();
+        });
+        Map<String, Long> byAgeBand = new LinkedHashMap<>();
+        for (int i = 0; i < AGE_BANDS.length; i++) {
+            String label = i + 1 < AGE_BANDS.length ? AGE_BANDS[i] + "-" + (AGE_BANDS[i + 1] - 1) : AGE_BANDS[i] + "+";
+            byAgeBand.put(label, bands[i]);
+        }
+        byAgeBand.put("unknown", a.noDob.sum());
+
+        Map<String, Long> byMonth = new TreeMap<>();
+        a.byMonth.forEach((month, n) -> {
+            long v = n.sum();
+            if (v != 0) byMonth.put(month.toString(), v);
+        });
+
+        return new PatientStats(total, byStatus, byAgeBand, byMonth, a.reconciledAt);
+    }
+}
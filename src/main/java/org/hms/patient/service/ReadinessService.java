@@ -0,0 +1,123 @@
+package org.hms.patient.service;
+
+import org.hms.patient.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks whether this instance can serve traffic quickly:
+ * - the background seed/import has finished (or was skipped)
+ * - the database answers a cheap ping (result cached for a few seconds so probes never pile up on the pool)
+ * - every registered warm-up (caches, in-memory indexes) has completed
+ */
+@Service
+public class ReadinessService {
+    private static final Logger log = LoggerFactory.getLogger(ReadinessService.class);
+
+    public enum SeedState { PENDING, RUNNING, DONE, FAILED, SKIPPED }
+
+    /** Progress of the startup seed, updated by DataLoader. */
+    public static class SeedProgress {
+        private volatile SeedState state = SeedState.PENDING;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong added = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private volatile OffsetDateTime startedAt;
+        private volatile OffsetDateTime finishedAt;
+        private volatile String error;
+
+        public SeedState getState() { return state; }
+        public long getRowsRead() { return rowsRead.get(); }
+        public long getAdded() { return added.get(); }
+        public long getSkipped() { return skipped.get(); }
+        public OffsetDateTime getStartedAt() { return startedAt; }
+        public OffsetDateTime getFinishedAt() { return finishedAt; }
+        public String getError() { return error; }
+
+        public void start() { startedAt = OffsetDateTime.now(); state = SeedState.RUNNING; }
+        public void read(long n) { rowsRead.addAndGet(n); }
+        public void added(long n) { added.addAndGet(n); }
+        public void skipped(long n) { skipped.addAndGet(n); }
+        public void finish(SeedState s, String err) { error = err; finishedAt = OffsetDateTime.now(); state = s; }
+
+        public boolean isSettled() { return state == SeedState.DONE || state == SeedState.SKIPPED || state == SeedState.FAILED; }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("state", state);
+            m.put("rowsRead", rowsRead.get());
+            m.put("added", added.get());
+            m.put("skipped", skipped.get());
+            if (startedAt != null) m.put("startedAt", startedAt.toString());
+            if (finishedAt != null) m.put("finishedAt", finishedAt.toString());
+            if (error != null) m.put("error", error);
+            return m;
+        }
+    }
+
+    private final ShardRouter router;
+    private final long dbPingTtlMs;
+    private final SeedProgress seed = new SeedProgress();
+    private final Map<String, Boolean> warmups = new ConcurrentHashMap<>();
+
+    private volatile boolean dbUp = false;
+    private volatile long dbCheckedAt = 0L;
+
+    public ReadinessService(ShardRouter router,
+                            @Value("${patient.readiness.db-ping-ttl-ms:5000}") long dbPingTtlMs) {
+        this.router = router;
+        this.dbPingTtlMs = dbPingTtlMs;
+    }
+
+    public SeedProgress seed() { return seed; }
+
+    /** Registers a warm-up that must complete before the instance reports ready. */
+    public void registerWarmup(String name) { warmups.putIfAbsent(name, false); }
+
+    public void markWarm(String name) {
+        if (!Boolean.TRUE.equals(warmups.put(name, true))) log.info("Warm-up complete: {}", name);
+    }
+
+    public boolean isDatabaseUp() {
+        long now = System.currentTimeMillis();
+        if (now - dbCheckedAt < dbPingTtlMs) return dbUp;
+        synchronized (this) {
+            if (System.currentTimeMillis() - dbCheckedAt < dbPingTtlMs) return dbUp;
+            // every shard must answer: with one down, gets for its patients and every list would fail
+            boolean up = true;
+            for (int shard = 0; shard < router.shardCount() && up; shard++) {
+                try {
+                    router.jdbc(shard).queryForObject("SELECT 1", Integer.class);
+                } catch (Exception e) {
+                    log.warn("Readiness DB ping failed on shard {}: {}", shard, e.getMessage());
+                    up = false;
+                }
+            }
+            dbUp = up;
+            dbCheckedAt = System.currentTimeMillis();
+            return up;
+        }
+    }
+
+    public boolean isWarm() { return !warmups.containsValue(false); }
+
+    public boolean isReady() {
+        return seed.isSettled() && isWarm() && isDatabaseUp();
+    }
+
+    public Map<String, Object> details() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("seed", seed.toMap());
+        m.put("database", isDatabaseUp() ? "UP" : "DOWN");
+        m.put("warmup", new LinkedHashMap<>(warmups));
+        return m;
+    }
+}
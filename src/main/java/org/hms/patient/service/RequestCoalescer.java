@@ -0,0 +1,144 @@
+package org.hms.patient.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hms.patient.exception.RequestTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing for identical reads.
+ * - The first caller for a key submits the call to a small worker pool
+ * - Callers arriving while that call is in flight wait on the same future instead of hitting the DB again
+ * - Every caller (leader included) waits with its own timeout, measured from its own arrival
+ * - When the pool and its queue are full the read is refused at once (503) rather than run on the caller's
+ *   thread, where nothing could bound the wait
+ * - Writers detach in-flight reads of the keys they affect (forget / forgetPrefixed); callers that already
+ *   joined such a read still get its result, which may predate the write
+ *
+ * Results are shared between waiters, so only use this for read paths whose results are not mutated by callers.
+ */
+@Component
+public class RequestCoalescer {
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter timedOut;
+    private final Counter rejected;
+
+    public RequestCoalescer(MeterRegistry registry,
+                            @Value("${patient.coalescing.timeout-ms:5000}") long timeoutMs,
+                            @Value("${patient.coalescing.threads:16}") int threads,
+                            @Value("${patient.coalescing.queue-capacity:1000}") int queueCapacity) {
+        this.timeoutMs = timeoutMs;
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "coalescer-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // one meter, one description; result=executed|coalesced|timeout tells the outcomes apart
+        String description = "Coalesced reads by outcome: executed a database call, joined an in-flight call, "
+                + "timed out, or rejected by a saturated pool";
+        this.executed = Counter.builder("patient.coalescing.requests").tag("result", "executed")
+                .description(description).register(registry);
+        this.coalesced = Counter.builder("patient.coalescing.requests").tag("result", "coalesced")
+                .description(description).register(registry);
+        this.timedOut = Counter.builder("patient.coalescing.requests").tag("result", "timeout")
+                .description(description).register(registry);
+        this.rejected = Counter.builder("patient.coalescing.requests").tag("result", "rejected")
+                .description(description).register(registry);
+        registry.gauge("patient.coalescing.inflight", inFlight, ConcurrentHashMap::size);
+    }
+
+    public <T> T execute(String key, Supplier<T> call) {
+        return execute(key, timeoutMs, call);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, long timeoutMs, Supplier<T> call) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        CompletableFuture<Object> future;
+        if (existing == null) {
+            executed.increment();
+            future = mine;
+            try {
+                executor.execute(() -> {
+                    try {
+                        Object result = call.get();
+                        // unregister before completing so later callers start a fresh read
+                        inFlight.remove(key, mine);
+                        mine.complete(result);
+                    } catch (Throwable t) {
+                        inFlight.remove(key, mine);
+                        mine.completeExceptionally(t);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // callers that joined in the meantime fail with the leader
+                rejected.increment();
+                RequestTimeoutException busy = new RequestTimeoutException("Too many reads in flight, rejected " + key);
+                inFlight.remove(key, mine);
+                mine.completeExceptionally(busy);
+                throw busy;
+            }
+        } else {
+            coalesced.increment();
+            future = existing;
+        }
+        return (T) await(key, future, timeoutMs);
+    }
+
+    /**
+     * Detaches the in-flight call for {@code key}, if any, so callers arriving after a write start a fresh read
+     * instead of joining one that may have read the old row. Callers already waiting still get its result.
+     */
+    public void forget(String key) {
+        inFlight.remove(key);
+    }
+
+    /** {@link #forget} for every in-flight key starting with one of {@code prefixes} (a scan of the in-flight keys). */
+    public void forgetPrefixed(String... prefixes) {
+        inFlight.keySet().removeIf(key -> {
+            for (String prefix : prefixes) {
+                if (key.startsWith(prefix)) return true;
+            }
+            return false;
+        });
+    }
+
+    private Object await(String key, CompletableFuture<Object> future, long timeoutMs) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new RequestTimeoutException("Timed out after " + timeoutMs + "ms waiting for " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestTimeoutException("Interrupted while waiting for " + key);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
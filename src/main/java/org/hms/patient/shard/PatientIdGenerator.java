@@ -0,0 +1,53 @@
+package org.hms.patient.shard;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+
+/**
+ * Cluster-wide patient ids, replacing per-table AUTO_INCREMENT (which would hand out the same id on every shard).
+ * The counter is the patient_id_sequence row on shard 0; each instance reserves a block of ids with one
+ * SELECT ... FOR UPDATE / UPDATE and serves it from memory. Ids are unique and increasing per instance,
+ * but not gap-free: an unused block tail is lost on restart.
+ */
+public class PatientIdGenerator {
+    private static final String SEQUENCE = "patient";
+
+    private final ShardRouter router;
+    private final int blockSize;
+    private long next;
+    private long limit;
+
+    public PatientIdGenerator(ShardRouter router, int blockSize) {
+        this.router = router;
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    public synchronized long next() {
+        if (next >= limit) {
+            next = reserve(blockSize);
+            limit = next + blockSize;
+        }
+        return next++;
+    }
+
+    /** Moves the sequence past an id written explicitly (seed data, CSV with ids). */
+    public synchronized void ensureAbove(long id) {
+        router.tx(0).executeWithoutResult(status -> router.jdbc(0).update(
+                "UPDATE patient_id_sequence SET next_val = ? WHERE name = ? AND next_val <= ?", id + 1, SEQUENCE, id));
+        if (id >= next) limit = next;   // the rest of the current block may now collide
+    }
+
+    private long reserve(int count) {
+        Long start = router.tx(0).execute(status -> {
+            Long current;
+            try {
+                current = router.jdbc(0).queryForObject(
+                        "SELECT next_val FROM patient_id_sequence WHERE name = ? FOR UPDATE", Long.class, SEQUENCE);
+            } catch (EmptyResultDataAccessException e) {
+                throw new IllegalStateException("patient_id_sequence has no '" + SEQUENCE + "' row", e);
+            }
+            router.jdbc(0).update("UPDATE patient_id_sequence SET next_val = ? WHERE name = ?", current + count, SEQUENCE);
+            return current;
+        });
+        return start;
+    }
+}
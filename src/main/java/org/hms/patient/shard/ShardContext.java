@@ -0,0 +1,18 @@
+package org.hms.patient.shard;
+
+/**
+ * Shard the current thread's next connection is taken from. Read by ShardRoutingDataSource when a
+ * transaction (or auto-commit statement) acquires its connection; unset means shard 0.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static Integer current() { return CURRENT.get(); }
+
+    static void set(Integer shard) {
+        if (shard == null) CURRENT.remove();
+        else CURRENT.set(shard);
+    }
+}
@@ -0,0 +1,178 @@
+package org.hms.patient.shard;
+
+import jakarta.annotation.PreDestroy;
+import org.hms.patient.exception.BadRequestException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Places patients on shards and runs work against them.
+ * - A patient lives on shardFor(patientId): a mixed hash of the id modulo the shard count, so
+ *   sequentially allocated ids still spread evenly. Changing the shard count moves almost every
+ *   patient; there is no online re-sharding
+ * - on(shard, ...) runs a call with its connections routed to one shard (JPA and the shared JdbcTemplate)
+ * - onAll(...) and the scatter helpers fan a call out to every shard in parallel and gather the results
+ * With a single shard everything runs inline on the caller's thread.
+ */
+public class ShardRouter {
+    private final List<DataSource> shards;
+    private final List<JdbcTemplate> jdbc = new ArrayList<>();
+    private final List<TransactionTemplate> tx = new ArrayList<>();
+    private final ExecutorService scatter;
+    private final int maxScatterRows;
+
+    public ShardRouter(List<DataSource> shards, int scatterThreads, int maxScatterRows) {
+        this.shards = List.copyOf(shards);
+        this.maxScatterRows = maxScatterRows;
+        for (DataSource ds : this.shards) {
+            jdbc.add(new JdbcTemplate(ds));
+            tx.add(new TransactionTemplate(new DataSourceTransactionManager(ds)));
+        }
+        AtomicInteger seq = new AtomicInteger();
+        this.scatter = this.shards.size() == 1 ? null : Executors.newFixedThreadPool(scatterThreads, r -> {
+            Thread t = new Thread(r, "shard-scatter-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int shardCount() { return shards.size(); }
+
+    public int shardFor(long patientId) {
+        if (shards.size() == 1) return 0;
+        // murmur3 fmix64: neighbouring ids land on unrelated shards
+        long h = patientId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) shards.size());
+    }
+
+    public DataSource dataSource(int shard) { return shards.get(shard); }
+
+    /** JdbcTemplate bound directly to one shard, independent of ShardContext. */
+    public JdbcTemplate jdbc(int shard) { return jdbc.get(shard); }
+
+    /** Local transactions on one shard's DataSource (JDBC work that must not join the JPA transaction). */
+    public TransactionTemplate tx(int shard) { return tx.get(shard); }
+
+    public <T> T on(int shard, Supplier<T> call) {
+        Integer previous = ShardContext.current();
+        ShardContext.set(shard);
+        try {
+            return call.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void run(int shard, Runnable call) {
+        on(shard, () -> { call.run(); return null; });
+    }
+
+    /** Runs call(shard) on every shard in parallel; results (which may be null) come back in shard order. */
+    public <T> List<T> onAll(IntFunction<T> call) {
+        if (shards.size() == 1) return Collections.singletonList(on(0, () -> call.apply(0)));
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            int shard = i;
+            futures.add(scatter.submit(() -> on(shard, () -> call.apply(shard))));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        try {
+            for (Future<T> f : futures) results.add(f.get());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    public void runAll(IntConsumer call) {
+        onAll(shard -> { call.accept(shard); return null; });
+    }
+
+    public long sum(IntFunction<Long> call) {
+        return onAll(call).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Page across all shards: each shard returns its first offset+size rows in {@code order}, the runs
+     * are merged and the requested window cut out. Totals are the sum of the shard totals.
+     * Every shard reads and ships offset+size rows, so windows ending past maxScatterRows are rejected (400).
+     */
+    public <T> Page<T> scatterPage(Pageable page, Comparator<T> order, Function<Pageable, Page<T>> query) {
+        if (shards.size() == 1) return on(0, () -> query.apply(page));
+        List<Page<T>> parts = onAll(s -> query.apply(head(page)));
+        long total = parts.stream().mapToLong(Page::getTotalElements).sum();
+        return new PageImpl<>(window(parts, page, order).limit(page.getPageSize()).toList(), page, total);
+    }
+
+    /** Slice across all shards; hasNext if the merged rows run past the window or any shard has more. */
+    public <T> Slice<T> scatterSlice(Pageable page, Comparator<T> order, Function<Pageable, Slice<T>> query) {
+        if (shards.size() == 1) return on(0, () -> query.apply(page));
+        List<Slice<T>> parts = onAll(s -> query.apply(head(page)));
+        List<T> rest = window(parts, page, order).toList();
+        boolean hasNext = rest.size() > page.getPageSize() || parts.stream().anyMatch(Slice::hasNext);
+        return new SliceImpl<>(rest.stream().limit(page.getPageSize()).toList(), page, hasNext);
+    }
+
+    private Pageable head(Pageable page) {
+        long rows = page.getOffset() + page.getPageSize();
+        if (page.getOffset() < 0 || rows > maxScatterRows) {
+            throw new BadRequestException("(page + 1) * size must not exceed " + maxScatterRows
+                    + " when patients are sharded; narrow the query instead of paging deeper");
+        }
+        return PageRequest.of(0, (int) rows, page.getSort());
+    }
+
+    private static <T> Stream<T> window(List<? extends Slice<T>> parts, Pageable page, Comparator<T> order) {
+        // each part is already sorted; the stable sort merges the runs
+        return parts.stream().flatMap(p -> p.getContent().stream()).sorted(order).skip(page.getOffset());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatter != null) scatter.shutdownNow();
+        for (DataSource ds : shards) {
+            if (ds instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception ignored) {
+                    // shutting down anyway
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.hms.patient.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * patient.sharding.* — the datasources patients are hash-partitioned across.
+ * With no shards listed the service runs on spring.datasource as a single shard.
+ */
+@ConfigurationProperties(prefix = "patient.sharding")
+public class ShardingProperties {
+
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int poolSize = 10;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    }
+
+    private List<Shard> shards = new ArrayList<>();
+    private int scatterThreads = 16;
+    private int idBlockSize = 100;
+    private int maxScatterRows = 10_000;
+
+    public List<Shard> getShards() { return shards; }
+    public void setShards(List<Shard> shards) { this.shards = shards; }
+    public int getScatterThreads() { return scatterThreads; }
+    public void setScatterThreads(int scatterThreads) { this.scatterThreads = scatterThreads; }
+    public int getIdBlockSize() { return idBlockSize; }
+    public void setIdBlockSize(int idBlockSize) { this.idBlockSize = idBlockSize; }
+    public int getMaxScatterRows() { return maxScatterRows; }
+    public void setMaxScatterRows(int maxScatterRows) { this.maxScatterRows = maxScatterRows; }
+}
@@ -1 +0,0 @@
-INSERT INTO patients (first_name, last_name, email) VALUES ('John','Doe','john.doe@example.com');
@@ -0,0 +1,14 @@
+-- Baseline schema, matching org.hms.patient.model.Patient.
+-- Databases previously created by ddl-auto=update are baselined at this version (spring.flyway.baseline-on-migrate).
+CREATE TABLE IF NOT EXISTS patients (
+  patient_id BIGINT NOT NULL AUTO_INCREMENT,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(255) NOT NULL,
+  phone VARCHAR(255) NOT NULL,
+  dob DATE,
+  created_at DATETIME(6) NOT NULL,
+  active BIT NOT NULL,
+  PRIMARY KEY (patient_id),
+  CONSTRAINT uk_patients_email UNIQUE (email),
+  CONSTRAINT uk_patients_phone UNIQUE (phone)
+);
@@ -0,0 +1,4 @@
+-- Active-only listing/search: WHERE active = ? ORDER BY created_at DESC, patient_id DESC
+CREATE INDEX idx_patients_active_created ON patients (active, created_at, patient_id);
+-- Unfiltered listing/search: ORDER BY created_at DESC, patient_id DESC
+CREATE INDEX idx_patients_created ON patients (created_at, patient_id);
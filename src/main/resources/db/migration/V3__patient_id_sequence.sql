@@ -0,0 +1,10 @@
+-- Application-assigned patient ids (see PatientIdGenerator): AUTO_INCREMENT is per table, so it cannot
+-- produce ids that are unique across shards. The row is only read on shard 0; the other shards carry it unused.
+CREATE TABLE IF NOT EXISTS patient_id_sequence (
+    name     VARCHAR(64) NOT NULL,
+    next_val BIGINT      NOT NULL,
+    PRIMARY KEY (name)
+);
+
+INSERT INTO patient_id_sequence (name, next_val)
+SELECT 'patient', COALESCE(MAX(patient_id), 0) + 1 FROM patients;
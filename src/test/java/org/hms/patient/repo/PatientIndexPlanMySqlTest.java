@@ -0,0 +1,61 @@
+package org.hms.patient.repo;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The PatientIndexPlanTest checks on MySQL 8 (Testcontainers): every list/search variant uses its V2 index and
+ * needs no filesort, as in the README. Runs when Docker is available, e.g. in CI.
+ */
+@EnabledIf("dockerAvailable")
+class PatientIndexPlanMySqlTest extends PatientIndexPlanSupport {
+    private static MySQLContainer<?> mysql;
+
+    @DynamicPropertySource
+    static void mysqlProperties(DynamicPropertyRegistry registry) {
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+    }
+
+    @AfterAll
+    static void stopMysql() {
+        if (mysql != null) mysql.stop();
+    }
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @Override
+    void analyze() {
+        jdbc.execute("ANALYZE TABLE patients");
+    }
+
+    @Test
+    void activeOnlyListAndSearchAvoidFilesort() {
+        activeOnly().forEach((method, q) -> assertIndexOrdered(method, q, "idx_patients_active_created"));
+    }
+
+    @Test
+    void unfilteredListAndSearchAvoidFilesort() {
+        unfiltered().forEach((method, q) -> assertIndexOrdered(method, q, "idx_patients_created"));
+    }
+
+    private void assertIndexOrdered(String method, Query q, String index) {
+        Map<String, Object> plan = jdbc.queryForMap("EXPLAIN " + q.sql(), q.args());
+        assertThat(plan.get("key")).as(method + ": " + q.sql()).isEqualTo(index);
+        assertThat(String.valueOf(plan.get("Extra"))).as(method + ": " + q.sql()).doesNotContain("Using filesort");
+    }
+}
@@ -0,0 +1,108 @@
+package org.hms.patient.repo;
+
+import org.hms.patient.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the PatientRepository list/search methods PatientService uses, captures the row query Hibernate sends
+ * for each (SqlCapture) and hands it to the subclass to EXPLAIN against its database.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)   // seeded rows must be committed for the planner
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.hms.patient.repo.SqlCapture",
+        "spring.jpa.show-sql=false"
+})
+abstract class PatientIndexPlanSupport {
+    // PatientService.NEWEST_FIRST; a deeper page, so the offset is part of the query as it is in production
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("patientId"));
+    static final PageRequest PAGE = PageRequest.of(2, 20, NEWEST_FIRST);
+    static final int ROWS = 5000;
+
+    /** A captured statement and the values for its placeholders, in order. */
+    record Query(String sql, Object[] args) {}
+
+    @Autowired
+    PatientRepository repo;
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM patients", Integer.class);
+        if (rows != null && rows >= ROWS) return;
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        jdbc.batchUpdate("INSERT INTO patients (patient_id, name, email, phone, dob, active, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                IntStream.rangeClosed(1, ROWS).mapToObj(i -> new Object[]{
+                        (long) i, "patient " + i, "p" + i + "@example.com", String.format("9%09d", i),
+                        Date.valueOf("1990-01-01"), i % 2 == 0, Timestamp.valueOf(start.plusMinutes(i))}).toList());
+        analyze();
+    }
+
+    /** Refreshes the planner statistics after seeding. */
+    abstract void analyze();
+
+    /** Active-only list/search variants: exact (Page) and count-less (Slice) for each. */
+    Map<String, Query> activeOnly() {
+        Map<String, Query> q = new LinkedHashMap<>();
+        capture(q, "findByActiveTrue", () -> repo.findByActiveTrue(PAGE));
+        capture(q, "readByActiveTrue", () -> repo.readByActiveTrue(PAGE));
+        capture(q, "findByActiveTrueAndNameContainingIgnoreCase",
+                () -> repo.findByActiveTrueAndNameContainingIgnoreCase("ann", PAGE), "%ann%");
+        capture(q, "readByActiveTrueAndNameContainingIgnoreCase",
+                () -> repo.readByActiveTrueAndNameContainingIgnoreCase("ann", PAGE), "%ann%");
+        capture(q, "findByActiveTrueAndPhoneContaining", () -> repo.findByActiveTrueAndPhoneContaining("55", PAGE), "%55%");
+        capture(q, "readByActiveTrueAndPhoneContaining", () -> repo.readByActiveTrueAndPhoneContaining("55", PAGE), "%55%");
+        return q;
+    }
+
+    /** Unfiltered list and search variants. */
+    Map<String, Query> unfiltered() {
+        Map<String, Query> q = new LinkedHashMap<>();
+        capture(q, "findAll", () -> repo.findAll(PAGE));
+        capture(q, "readAllBy", () -> repo.readAllBy(PAGE));
+        capture(q, "findByNameContainingIgnoreCase", () -> repo.findByNameContainingIgnoreCase("ann", PAGE), "%ann%");
+        capture(q, "readByNameContainingIgnoreCase", () -> repo.readByNameContainingIgnoreCase("ann", PAGE), "%ann%");
+        capture(q, "findByPhoneContaining", () -> repo.findByPhoneContaining("55", PAGE), "%55%");
+        capture(q, "readByPhoneContaining", () -> repo.readByPhoneContaining("55", PAGE), "%55%");
+        return q;
+    }
+
+    /**
+     * Runs {@code call} and returns the row query it sent (the ORDER BY statement, not the COUNT).
+     * Hibernate binds the filter values first, then the offset and the row limit; Slice methods ask for one extra row.
+     */
+    private static void capture(Map<String, Query> into, String method, Runnable call, Object... filter) {
+        SqlCapture.clear();
+        call.run();
+        String sql = SqlCapture.statements().stream()
+                .filter(s -> s.toLowerCase().contains(" order by "))
+                .findFirst().orElseThrow(() -> new AssertionError(method + ": no row query in " + SqlCapture.statements()));
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        List<Object> args = new ArrayList<>(List.of(filter));
+        if (placeholders - filter.length == 2) args.add(PAGE.getOffset());
+        args.add(method.startsWith("read") ? PAGE.getPageSize() + 1 : PAGE.getPageSize());
+        if (args.size() != placeholders) throw new AssertionError(method + ": unexpected placeholders in " + sql);
+        into.put(method, new Query(sql, args.toArray()));
+    }
+}
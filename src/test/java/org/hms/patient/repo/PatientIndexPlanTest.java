@@ -0,0 +1,48 @@
+package org.hms.patient.repo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the list/search query plans behind V2 (see README, "Schema migrations") on H2 in MySQL mode, using the
+ * SQL Hibernate actually sends. H2 cannot scan an ascending index backwards, so only the active-only plans are
+ * checked here; PatientIndexPlanMySqlTest checks every variant on MySQL 8 when Docker is available.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+class PatientIndexPlanTest extends PatientIndexPlanSupport {
+
+    @Override
+    void analyze() {
+        jdbc.execute("ANALYZE");
+    }
+
+    @Test
+    void rowQueriesSortNewestFirst() {
+        activeOnly().forEach((method, q) -> assertNewestFirst(method, q.sql()));
+        unfiltered().forEach((method, q) -> assertNewestFirst(method, q.sql()));
+    }
+
+    @Test
+    void activeOnlyListAndSearchUseActiveCreatedIndex() {
+        activeOnly().forEach((method, q) ->
+                assertThat(jdbc.queryForObject("EXPLAIN " + q.sql(), String.class, q.args()))
+                        .as(method + ": " + q.sql())
+                        .contains("idx_patients_active_created"));
+    }
+
+    @Test
+    void noNameIndex() {
+        assertThat(jdbc.queryForList("SELECT index_name FROM information_schema.indexes WHERE table_name = 'patients'",
+                String.class)).noneMatch(name -> name.toLowerCase().startsWith("idx_patients_name"));
+    }
+
+    private static void assertNewestFirst(String method, String sql) {
+        assertThat(sql.toLowerCase()).as(method).containsPattern("order by \\w+\\.created_at desc,\\s*\\w+\\.patient_id desc");
+    }
+}
@@ -0,0 +1,21 @@
+package org.hms.patient.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Records every SQL statement Hibernate prepares (registered via hibernate.session_factory.statement_inspector). */
+public class SqlCapture implements StatementInspector {
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    static void clear() { statements.clear(); }
+
+    static List<String> statements() { return List.copyOf(statements); }
+}
@@ -0,0 +1,82 @@
+package org.hms.patient.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void plainFields() throws IOException {
+        assertThat(records("a,b,c\n1,,3\n")).containsExactly(List.of("a", "b", "c"), List.of("1", "", "3"));
+    }
+
+    @Test
+    void quotedCommasNewlinesAndDoubledQuotes() throws IOException {
+        assertThat(records("\"Sharma, Vivaan\",\"line 1\nline 2\",\"say \"\"hi\"\"\",\"\"\n"))
+                .containsExactly(List.of("Sharma, Vivaan", "line 1\nline 2", "say \"hi\"", ""));
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertThat(records("5'10\",x\n")).containsExactly(List.of("5'10\"", "x"));
+    }
+
+    @Test
+    void lfCrlfAndCrEndRecords() throws IOException {
+        List<String> one = List.of("a", "b"), two = List.of("c", "d");
+        assertThat(records("a,b\nc,d\n")).containsExactly(one, two);
+        assertThat(records("a,b\r\nc,d\r\n")).containsExactly(one, two);
+        assertThat(records("a,b\rc,d\r")).containsExactly(one, two);
+        assertThat(records("a,b\nc,d")).containsExactly(one, two);   // no final newline
+    }
+
+    @Test
+    void blankLinesAreSkipped() throws IOException {
+        assertThat(records("\n\na,b\n\r\n\rc,d\n\n")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+        assertThat(records("")).isEmpty();
+        assertThat(records("\n\r\n")).isEmpty();
+    }
+
+    @Test
+    void recordLineIsWhereTheRecordStarts() throws IOException {
+        for (String nl : new String[]{"\n", "\r\n", "\r"}) {
+            String csv = "h1,h2" + nl + nl + "\"multi" + nl + "line\",x" + nl + "last,y" + nl;
+            CsvRecordReader reader = new CsvRecordReader(new StringReader(csv), 1000);
+            List<Long> lines = new ArrayList<>();
+            while (reader.next() != null) lines.add(reader.getRecordLine());
+            assertThat(lines).as("line ending %s", nl.replace("\r", "CR").replace("\n", "LF")).containsExactly(1L, 3L, 5L);
+        }
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        assertThatThrownBy(() -> records("a,b\n\"never closed,c\nd,e\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unterminated quoted field starting on line 2");
+    }
+
+    @Test
+    void recordLongerThanTheLimitFails() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("abcd,efgh\nabcdefghijk\n"), 10);
+        assertThat(reader.next()).containsExactly("abcd", "efgh");   // 9 characters fit
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class)
+                .hasMessageContaining("line 2").hasMessageContaining("longer than 10");
+        assertThatThrownBy(() -> new CsvRecordReader(new StringReader("\"stray quote,\n1,2,3\n4,5,6\n"), 10).next())
+                .isInstanceOf(IOException.class).hasMessageContaining("unterminated quoted field?");
+    }
+
+    private static List<List<String>> records(String csv) throws IOException {
+        List<List<String>> out = new ArrayList<>();
+        try (CsvRecordReader reader = new CsvRecordReader(new StringReader(csv), 1000)) {
+            for (List<String> r = reader.next(); r != null; r = reader.next()) out.add(r);
+        }
+        return out;
+    }
+}
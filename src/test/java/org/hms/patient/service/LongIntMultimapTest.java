@@ -0,0 +1,96 @@
+package org.hms.patient.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongIntMultimapTest {
+
+    @Test
+    void singleAndRepeatedValues() {
+        LongIntMultimap map = new LongIntMultimap(4);
+        assertThat(map.first(7)).isEqualTo(-1);
+
+        map.put(7, 1);
+        map.put(7, 1);   // already there
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(values(map, 7)).containsExactly(1);
+
+        map.put(7, 2);
+        map.put(7, 3);
+        assertThat(values(map, 7)).containsExactlyInAnyOrder(1, 2, 3);
+
+        map.remove(7, 1);
+        map.remove(7, 9);   // not there
+        assertThat(values(map, 7)).containsExactlyInAnyOrder(2, 3);
+        map.remove(7, 2);
+        assertThat(map.first(7)).isEqualTo(3);
+        map.remove(7, 3);
+        assertThat(map.first(7)).isEqualTo(-1);
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void forEachStopsWhenTheVisitorSaysSo() {
+        LongIntMultimap map = new LongIntMultimap(4);
+        for (int v = 0; v < 10; v++) map.put(-3, v);
+        int[] visited = {0};
+        map.forEach(-3, v -> ++visited[0] < 4);
+        assertThat(visited[0]).isEqualTo(4);
+    }
+
+    @Test
+    void matchesAReferenceMapThroughRehashesAndDeletes() {
+        Random rnd = new Random(20240601);
+        LongIntMultimap map = new LongIntMultimap(16);   // grows several times
+        Map<Long, Set<Integer>> reference = new HashMap<>();
+
+        for (int op = 0; op < 200_000; op++) {
+            // a narrow key range keeps probe runs long, so backward-shift deletion is exercised
+            long key = rnd.nextInt(5) == 0 ? rnd.nextLong() : rnd.nextInt(3000) - 1500;
+            int value = rnd.nextInt(6);
+            if (rnd.nextInt(3) == 0) {
+                map.remove(key, value);
+                Set<Integer> values = reference.get(key);
+                if (values != null && values.remove(value) && values.isEmpty()) reference.remove(key);
+            } else {
+                map.put(key, value);
+                reference.computeIfAbsent(key, k -> new HashSet<>()).add(value);
+            }
+            if (op % 10_000 == 0) assertSame(map, reference);
+        }
+        assertSame(map, reference);
+
+        // drain everything: lookups must keep working while runs shrink
+        for (Map.Entry<Long, Set<Integer>> e : Map.copyOf(reference).entrySet()) {
+            for (int v : Set.copyOf(e.getValue())) map.remove(e.getKey(), v);
+            reference.remove(e.getKey());
+            if (reference.size() % 500 == 0) assertSame(map, reference);
+        }
+        assertThat(map.size()).isZero();
+    }
+
+    private static void assertSame(LongIntMultimap map, Map<Long, Set<Integer>> reference) {
+        assertThat(map.size()).isEqualTo(reference.size());
+        for (Map.Entry<Long, Set<Integer>> e : reference.entrySet()) {
+            assertThat(values(map, e.getKey())).as("key %d", e.getKey()).isEqualTo(e.getValue());
+            assertThat(e.getValue()).contains(map.first(e.getKey()));
+        }
+        for (long absent = 1500; absent < 1600; absent++) assertThat(map.first(absent)).isEqualTo(-1);
+    }
+
+    private static Set<Integer> values(LongIntMultimap map, long key) {
+        Set<Integer> out = new HashSet<>();
+        map.forEach(key, v -> {
+            assertThat(out.add(v)).as("value %d listed twice", v).isTrue();
+            return true;
+        });
+        return out;
+    }
+}
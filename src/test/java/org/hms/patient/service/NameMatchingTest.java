@@ -0,0 +1,69 @@
+package org.hms.patient.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class NameMatchingTest {
+
+    @Test
+    void normalizeFoldsCaseAccentsAndPunctuation() {
+        assertThat(NameMatching.normalize("  José  O'Brien-Nair ")).isEqualTo("jose o brien nair");
+        assertThat(NameMatching.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void soundexOfCommonVariants() {
+        assertThat(NameMatching.soundex("vivaan")).isEqualTo("V150");
+        assertThat(NameMatching.soundex("vivan")).isEqualTo("V150");
+        assertThat(NameMatching.soundex("sharma")).isEqualTo("S650");
+        assertThat(NameMatching.soundex("ashcraft")).isEqualTo("A261");   // h does not separate s and c
+        assertThat(NameMatching.soundex("tymczak")).isEqualTo("T522");    // a vowel does separate c and k
+        assertThat(NameMatching.soundex("123")).isNull();
+    }
+
+    @Test
+    void phoneticKeyIgnoresSpellingVariantsAndOrder() {
+        int key = key("Vivaan Sharma");
+        assertThat(key).isNotZero();
+        assertThat(key("Vivan Sharma")).isEqualTo(key);
+        assertThat(key("Sharma Vivan")).isEqualTo(key);
+        assertThat(key("Vivaan Kumar Sharma")).isEqualTo(key);   // middle names do not count
+        assertThat(key("Vivaan Patel")).isNotEqualTo(key);
+        assertThat(key("Vivaan")).isNotZero().isNotEqualTo(key);
+        assertThat(key).isLessThan(1 << 28);
+    }
+
+    @Test
+    void phoneticKeyIsZeroWithoutLatinLetters() {
+        assertThat(key("राहुल शर्मा")).isZero();
+        assertThat(key("王伟")).isZero();
+        assertThat(key("")).isZero();
+        assertThat(key("123 456")).isZero();
+    }
+
+    @Test
+    void phoneKeyKeepsTheLastTenDigits() {
+        long key = NameMatching.phoneKey("9876543210");
+        assertThat(NameMatching.phoneKey("+91 98765-43210")).isEqualTo(key);
+        assertThat(NameMatching.phoneKey("(0) 98765 43210")).isEqualTo(key);
+        assertThat(NameMatching.phoneKey("9876543211")).isNotEqualTo(key);
+        // leading zeros and length still count
+        assertThat(NameMatching.phoneKey("0123")).isNotEqualTo(NameMatching.phoneKey("123"));
+        assertThat(NameMatching.phoneKey("no phone")).isEqualTo(-1);
+        assertThat(NameMatching.phoneKey(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void jaroWinklerRewardsCommonPrefixes() {
+        assertThat(NameMatching.jaroWinkler("martha", "marhta")).isCloseTo(0.961, within(0.001));
+        assertThat(NameMatching.jaroWinkler("vivaan sharma", "vivaan sharma")).isEqualTo(1.0);
+        assertThat(NameMatching.jaroWinkler("abc", "")).isZero();
+        assertThat(NameMatching.jaroWinkler("vivaan", "vivan")).isGreaterThan(NameMatching.jaroWinkler("vivaan", "navin"));
+    }
+
+    private static int key(String name) {
+        return NameMatching.phoneticKey(NameMatching.normalize(name));
+    }
+}
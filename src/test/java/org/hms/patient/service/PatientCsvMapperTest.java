@@ -0,0 +1,115 @@
+package org.hms.patient.service;
+
+import org.hms.patient.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PatientCsvMapperTest {
+    private static final List<String> HEADER =
+            List.of("\uFEFFPatient ID", "Name", "E-mail", "Phone", "Date of Birth", "created_at", "Active", "Ward");
+
+    @Test
+    void headerIsDetectedByNameAndEmailColumns() {
+        assertThat(PatientCsvMapper.isHeader(HEADER)).isTrue();
+        assertThat(PatientCsvMapper.isHeader(List.of("NAME", "email"))).isTrue();
+        assertThat(PatientCsvMapper.isHeader(List.of("Vivaan Sharma", "vivaan@example.com", "9876543210", "1990-01-01")))
+                .isFalse();
+        assertThat(PatientCsvMapper.isHeader(List.of("name", "phone"))).isFalse();
+    }
+
+    @Test
+    void headerColumnsAreFoundByNameInAnyOrder() {
+        PatientCsvMapper mapper = PatientCsvMapper.fromHeader(
+                List.of("email", "ward", "name", "registered_at", "phone", "id", "dob", "active"));
+        Patient p = mapper.map(List.of(" ann@example.com ", "3", "Ann Rao", "2024-05-01 10:00:00", "98765 43210", "42",
+                "1990-02-03", "no"), true);
+
+        assertThat(p.getPatientId()).isEqualTo(42L);
+        assertThat(p.getName()).isEqualTo("Ann Rao");
+        assertThat(p.getEmail()).isEqualTo("ann@example.com");
+        assertThat(p.getPhone()).isEqualTo("98765 43210");
+        assertThat(p.getDob()).isEqualTo(LocalDate.of(1990, 2, 3));
+        assertThat(p.getCreatedAt()).isEqualTo(OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC));
+        assertThat(p.isActive()).isFalse();
+    }
+
+    @Test
+    void headerWithBomAndPunctuationMaps() {
+        Patient p = PatientCsvMapper.fromHeader(HEADER)
+                .map(List.of("7", "Ann Rao", "ann@example.com", "+919876543210", "", "", "", "ICU"), true);
+        assertThat(p.getPatientId()).isEqualTo(7L);
+        assertThat(p.getDob()).isNull();
+        assertThat(p.getCreatedAt()).isNotNull();
+        assertThat(p.isActive()).isTrue();   // blank means active
+    }
+
+    @Test
+    void idsAreOnlyKeptWhenAsked() {
+        Patient p = PatientCsvMapper.fromHeader(HEADER)
+                .map(List.of("7", "Ann Rao", "ann@example.com", "9876543210", "", "", "", ""), false);
+        assertThat(p.getPatientId()).isNull();
+    }
+
+    @Test
+    void positionalNumericFirstColumnIsTheId() {
+        PatientCsvMapper mapper = PatientCsvMapper.positional();
+        Patient withId = mapper.map(List.of("15", "Ann Rao", "ann@example.com", "9876543210", "1990-02-03",
+                "2024-05-01T10:00:00+05:30"), true);
+        assertThat(withId.getPatientId()).isEqualTo(15L);
+        assertThat(withId.getName()).isEqualTo("Ann Rao");
+        assertThat(withId.getCreatedAt()).isEqualTo(OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.ofHoursMinutes(5, 30)));
+
+        Patient withoutId = mapper.map(List.of("Ann Rao", "ann@example.com", "9876543210", "1990-02-03",
+                "2024-05-01T10:00:00"), true);
+        assertThat(withoutId.getPatientId()).isNull();
+        assertThat(withoutId.getName()).isEqualTo("Ann Rao");
+        assertThat(withoutId.getCreatedAt()).isEqualTo(OffsetDateTime.of(2024, 5, 1, 10, 0, 0, 0, ZoneOffset.UTC));
+    }
+
+    @Test
+    void positionalNeedsFourColumnsAfterTheId() {
+        assertThatThrownBy(() -> PatientCsvMapper.positional().map(List.of("15", "Ann Rao", "ann@example.com", "9876543210"), true))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("expected at least 5 columns, got 4");
+        assertThatThrownBy(() -> PatientCsvMapper.positional().map(List.of("Ann Rao", "ann@example.com"), true))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("expected at least 4 columns, got 2");
+    }
+
+    @Test
+    void invalidFieldsAreRejectedWithAReason() {
+        assertThat(reason("Ann Rao", "ann@example.com", "9876543210", "1990-13-01", "")).isEqualTo("invalid dob '1990-13-01'");
+        assertThat(reason("Ann Rao", "ann@example.com", "9876543210", "03/02/1990", "")).isEqualTo("invalid dob '03/02/1990'");
+        assertThat(reason("Ann Rao", "ann@example.com", "9876543210", "", "yesterday"))
+                .isEqualTo("invalid created_at 'yesterday'");
+        assertThat(reason("Ann Rao", "ann@example.com", "98a76", "", "")).isEqualTo("invalid phone '98a76'");
+        assertThat(reason("Ann Rao", "ann@example.com", "123", "", "")).isEqualTo("invalid phone '123'");
+        assertThat(reason("Ann Rao", "ann@example.com", "", "", "")).isEqualTo("invalid phone ''");
+        assertThat(reason("Ann Rao", "@example.com", "9876543210", "", "")).isEqualTo("invalid email '@example.com'");
+        assertThat(reason(" ", "ann@example.com", "9876543210", "", "")).isEqualTo("name is required");
+        assertThat(reason("x".repeat(256), "ann@example.com", "9876543210", "", ""))
+                .isEqualTo("field longer than 255 characters");
+    }
+
+    @Test
+    void nonNumericIdInAnIdColumnIsRejected() {
+        assertThatThrownBy(() -> PatientCsvMapper.fromHeader(HEADER)
+                .map(List.of("P-7", "Ann Rao", "ann@example.com", "9876543210", "", "", "", ""), true))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("invalid patient_id 'P-7'");
+    }
+
+    private static String reason(String name, String email, String phone, String dob, String createdAt) {
+        try {
+            PatientCsvMapper.fromHeader(List.of("name", "email", "phone", "dob", "created_at"))
+                    .map(List.of(name, email, phone, dob, createdAt), true);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        throw new AssertionError("record was accepted");
+    }
+}
@@ -0,0 +1,132 @@
+package org.hms.patient.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hms.patient.exception.RequestTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestCoalescerTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RequestCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (coalescer != null) coalescer.shutdown();
+    }
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        coalescer = new RequestCoalescer(registry, 5000, 4, 10);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> call = () -> {
+            calls.incrementAndGet();
+            await(release);
+            return "row";
+        };
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) results.add(callers.submit(() -> coalescer.execute("get|1", call)));
+        waitForCounter("executed", 1);
+        waitForCounter("coalesced", 19);
+        release.countDown();
+
+        for (Future<String> f : results) assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("row");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void eachCallerTimesOutFromItsOwnArrival() throws Exception {
+        coalescer = new RequestCoalescer(registry, 5000, 4, 10);
+        Supplier<String> slow = () -> {
+            await(release);
+            return "row";
+        };
+
+        Future<Long> leader = callers.submit(() -> elapsedUntilTimeout(() -> coalescer.execute("get|1", 200, slow)));
+        Thread.sleep(150);
+        Future<Long> follower = callers.submit(() -> elapsedUntilTimeout(() -> coalescer.execute("get|1", 200, slow)));
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isBetween(190L, 340L);
+        // the follower joined 150 ms later and still gets its full 200 ms
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isBetween(190L, 340L);
+        assertThat(registry.get("patient.coalescing.requests").tag("result", "executed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void saturatedPoolRejectsWithinTheTimeout() throws Exception {
+        coalescer = new RequestCoalescer(registry, 300, 1, 1);
+        Supplier<String> slow = () -> {
+            await(release);
+            return "row";
+        };
+        Future<String> a = callers.submit(() -> coalescer.execute("list|a", slow));    // occupies the only worker
+        waitForCounter("executed", 1);
+        Future<String> b = callers.submit(() -> coalescer.execute("list|b", slow));    // fills the queue
+        waitForCounter("executed", 2);
+
+        long started = System.nanoTime();
+        assertThatThrownBy(() -> coalescer.execute("list|c", slow)).isInstanceOf(RequestTimeoutException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(300L);
+        assertThat(registry.get("patient.coalescing.requests").tag("result", "rejected").counter().count()).isEqualTo(1);
+
+        // the rejected key is not left behind: once the pool drains, the same read runs again
+        release.countDown();
+        a.get(5, TimeUnit.SECONDS);
+        b.get(5, TimeUnit.SECONDS);
+        assertThat(coalescer.execute("list|c", () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void forgottenKeysStartAFreshRead() throws Exception {
+        coalescer = new RequestCoalescer(registry, 5000, 4, 10);
+        Future<String> before = callers.submit(() -> coalescer.execute("name|false|ann|0|20", () -> {
+            await(release);
+            return "old";
+        }));
+        waitForCounter("executed", 1);
+
+        coalescer.forgetPrefixed("list|", "name|", "phone|");
+        assertThat(coalescer.execute("name|false|ann|0|20", () -> "new")).isEqualTo("new");
+        release.countDown();
+        assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("old");
+    }
+
+    private static long elapsedUntilTimeout(Runnable call) {
+        long started = System.nanoTime();
+        assertThatThrownBy(call::run).isInstanceOf(RequestTimeoutException.class);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+    }
+
+    private void waitForCounter(String result, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("patient.coalescing.requests").tag("result", result).counter().count() < expected) {
+            if (System.nanoTime() > deadline) throw new AssertionError("counter " + result + " never reached " + expected);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
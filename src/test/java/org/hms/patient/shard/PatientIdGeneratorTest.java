@@ -0,0 +1,81 @@
+package org.hms.patient.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** PatientIdGenerator against the patient_id_sequence row on shard 0 of two in-memory H2 shards. */
+class PatientIdGeneratorTest {
+    private static int databases;
+    private ShardRouter router;
+
+    @BeforeEach
+    void shards() {
+        int db = ++databases;   // a fresh sequence row (next_val = 1) per test
+        router = new ShardRouter(IntStream.range(0, 2).mapToObj(i -> ShardRouterTest.h2Shard("ids" + db + "_" + i)).toList(),
+                2, 10_000);
+    }
+
+    @AfterEach
+    void close() {
+        router.shutdown();
+    }
+
+    @Test
+    void reservesOneBlockAtATime() {
+        PatientIdGenerator ids = new PatientIdGenerator(router, 10);
+        assertThat(ids.next()).isEqualTo(1);
+        assertThat(sequence()).isEqualTo(11);
+        for (int i = 2; i <= 10; i++) assertThat(ids.next()).isEqualTo(i);
+        assertThat(sequence()).isEqualTo(11);
+        assertThat(ids.next()).isEqualTo(11);
+        assertThat(sequence()).isEqualTo(21);
+    }
+
+    @Test
+    void instancesGetDisjointBlocks() {
+        PatientIdGenerator a = new PatientIdGenerator(router, 5);
+        PatientIdGenerator b = new PatientIdGenerator(router, 5);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            assertThat(seen.add(a.next())).isTrue();
+            assertThat(seen.add(b.next())).isTrue();
+        }
+        assertThat(sequence()).isEqualTo(31);   // three blocks of five each
+    }
+
+    @Test
+    void ensureAboveSkipsPastExplicitIdsAndDropsTheBlockTail() {
+        PatientIdGenerator ids = new PatientIdGenerator(router, 10);
+        assertThat(ids.next()).isEqualTo(1);
+
+        ids.ensureAbove(5);   // ids 2..10 of the current block may now collide
+        assertThat(sequence()).isEqualTo(11);   // already past 5: the sequence is not moved back
+        assertThat(ids.next()).isEqualTo(11);
+
+        ids.ensureAbove(1000);
+        assertThat(sequence()).isEqualTo(1001);
+        assertThat(ids.next()).isEqualTo(1001);
+
+        ids.ensureAbove(3);   // below everything handed out: no effect
+        assertThat(ids.next()).isEqualTo(1002);
+    }
+
+    @Test
+    void sequenceLivesOnShardZeroOnly() {
+        new PatientIdGenerator(router, 10).next();
+        assertThat(router.jdbc(1).queryForList("SELECT next_val FROM patient_id_sequence", Long.class))
+                .isEqualTo(List.of(1L));
+    }
+
+    private long sequence() {
+        return router.jdbc(0).queryForObject("SELECT next_val FROM patient_id_sequence WHERE name = 'patient'", Long.class);
+    }
+}
@@ -0,0 +1,165 @@
+package org.hms.patient.shard;
+
+import org.flywaydb.core.Flyway;
+import org.hms.patient.exception.BadRequestException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** ShardRouter over three in-memory H2 shards: placement, and scatter/gather paging against a single sorted list. */
+class ShardRouterTest {
+    private static final int SHARDS = 3;
+    private static final int PATIENTS = 300;
+    private static final int MAX_SCATTER_ROWS = 400;
+    // PatientService.NEWEST_FIRST: created_at DESC, ties broken by patient_id DESC
+    private static final Comparator<Row> NEWEST_FIRST =
+            Comparator.comparing(Row::createdAt).thenComparingLong(Row::id).reversed();
+
+    private static ShardRouter router;
+    private static List<Row> all;
+
+    record Row(long id, LocalDateTime createdAt) {}
+
+    @BeforeAll
+    static void shards() {
+        router = new ShardRouter(IntStream.range(0, SHARDS).mapToObj(i -> h2Shard("router" + i)).toList(), SHARDS,
+                MAX_SCATTER_ROWS);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        all = new ArrayList<>();
+        for (long id = 1; id <= PATIENTS; id++) {
+            // groups of seven patients share a created_at, so ordering within a group rests on patient_id
+            Row row = new Row(id, start.plusMinutes(id / 7));
+            all.add(row);
+            router.jdbc(router.shardFor(id)).update("INSERT INTO patients (patient_id, name, email, phone, created_at, active) "
+                            + "VALUES (?, ?, ?, ?, ?, TRUE)",
+                    id, "patient " + id, "p" + id + "@example.com", "9" + id, Timestamp.valueOf(row.createdAt()));
+        }
+        all.sort(NEWEST_FIRST);
+    }
+
+    @AfterAll
+    static void close() {
+        router.shutdown();
+    }
+
+    @Test
+    void shardForSpreadsSequentialIdsEvenly() {
+        int[] counts = new int[SHARDS];
+        for (long id = 1; id <= 30_000; id++) counts[router.shardFor(id)]++;
+        for (int c : counts) assertThat(c).isBetween(9_500, 10_500);
+        assertThat(router.shardFor(12345)).isEqualTo(router.shardFor(12345));
+    }
+
+    @Test
+    void singleShardHoldsEveryone() {
+        ShardRouter single = new ShardRouter(List.of(h2Shard("single")), 1, MAX_SCATTER_ROWS);
+        try {
+            assertThat(LongStream.rangeClosed(1, 1000).allMatch(id -> single.shardFor(id) == 0)).isTrue();
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @Test
+    void onRoutesToTheShardHoldingThePatient() {
+        for (long id : new long[]{1, 2, 3, 150, 300}) {
+            int shard = router.shardFor(id);
+            assertThat(router.on(shard, () -> current().queryForObject(
+                    "SELECT COUNT(*) FROM patients WHERE patient_id = ?", Integer.class, id))).isEqualTo(1);
+        }
+        assertThat(router.sum(shard -> current().queryForObject("SELECT COUNT(*) FROM patients", Long.class)))
+                .isEqualTo(PATIENTS);
+    }
+
+    @Test
+    void scatterPageMergesShardsInOrderWithTotals() {
+        for (int page : new int[]{0, 1, 7, 14}) {
+            PageRequest request = PageRequest.of(page, 20);
+            Page<Row> merged = router.scatterPage(request, NEWEST_FIRST, ShardRouterTest::shardPage);
+            assertThat(merged.getContent()).as("page " + page).isEqualTo(window(request));
+            assertThat(merged.getTotalElements()).isEqualTo(PATIENTS);
+            assertThat(merged.getTotalPages()).isEqualTo(15);
+        }
+        // a window that straddles tie groups and the end of the data
+        Page<Row> last = router.scatterPage(PageRequest.of(5, 55), NEWEST_FIRST, ShardRouterTest::shardPage);
+        assertThat(last.getContent()).isEqualTo(window(PageRequest.of(5, 55)));
+        assertThat(last.getContent()).hasSize(PATIENTS - 275);
+    }
+
+    @Test
+    void scatterSliceMergesShardsInOrderWithHasNext() {
+        Slice<Row> first = router.scatterSlice(PageRequest.of(0, 20), NEWEST_FIRST, ShardRouterTest::shardSlice);
+        assertThat(first.getContent()).isEqualTo(window(PageRequest.of(0, 20)));
+        assertThat(first.hasNext()).isTrue();
+
+        Slice<Row> last = router.scatterSlice(PageRequest.of(14, 20), NEWEST_FIRST, ShardRouterTest::shardSlice);
+        assertThat(last.getContent()).isEqualTo(window(PageRequest.of(14, 20)));
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    void windowsPastMaxScatterRowsAreRejected() {
+        // (19 + 1) * 20 = 400 rows per shard is the limit
+        assertThat(router.scatterPage(PageRequest.of(19, 20), NEWEST_FIRST, ShardRouterTest::shardPage)).isEmpty();
+        assertThatThrownBy(() -> router.scatterPage(PageRequest.of(20, 20), NEWEST_FIRST, ShardRouterTest::shardPage))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("400");
+        assertThatThrownBy(() -> router.scatterSlice(PageRequest.of(0, 401), NEWEST_FIRST, ShardRouterTest::shardSlice))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static List<Row> window(Pageable page) {
+        return all.stream().skip(page.getOffset()).limit(page.getPageSize()).toList();
+    }
+
+    /** What a shard's repository query does: newest first, one page, plus the shard's total. */
+    private static Page<Row> shardPage(Pageable page) {
+        long total = current().queryForObject("SELECT COUNT(*) FROM patients", Long.class);
+        return new PageImpl<>(rows(page, page.getPageSize()), page, total);
+    }
+
+    private static Slice<Row> shardSlice(Pageable page) {
+        List<Row> rows = rows(page, page.getPageSize() + 1);
+        boolean hasNext = rows.size() > page.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, page.getPageSize()) : rows, page, hasNext);
+    }
+
+    private static List<Row> rows(Pageable page, int limit) {
+        return current().query("SELECT patient_id, created_at FROM patients ORDER BY created_at DESC, patient_id DESC "
+                        + "LIMIT ? OFFSET ?",
+                (rs, n) -> new Row(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()), limit, page.getOffset());
+    }
+
+    /** The shard the router selected for this thread (ShardContext), as ShardRoutingDataSource would. */
+    private static JdbcTemplate current() {
+        Integer shard = ShardContext.current();
+        return router.jdbc(shard == null ? 0 : shard);
+    }
+
+    static DataSource h2Shard(String name) {
+        DataSource ds = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(ds).locations("classpath:db/migration").load().migrate();
+        return ds;
+    }
+}